@@ -0,0 +1,180 @@
+package com.smartinvoice.backend.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load generator. Each client is a virtual thread that sends
+ * a request, waits for the response and immediately sends the next one. For
+ * every client count it reports throughput and p50/p99 latency of successful
+ * (2xx) responses, so the same run can be repeated against the application
+ * with and without the {@code virtual-threads} profile. Throttled (429) and
+ * failed responses are counted separately and excluded from both.
+ *
+ * All clients share one X-Business-ID, so the per-tenant rate limit would
+ * throttle nearly every request and the comparison would measure the limiter.
+ * Start the application with rate limiting disabled for both runs:
+ *
+ * <pre>
+ * java -jar target/backend-*.jar --smartinvoice.rate-limit.enabled=false
+ * java -jar target/backend-*.jar --smartinvoice.rate-limit.enabled=false \
+ *     --spring.profiles.active=virtual-threads
+ * </pre>
+ *
+ * and drive each with:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec@load-test \
+ *     -Dload.business-id=&lt;uuid&gt; \
+ *     -Dload.url=http://localhost:8080/api/invoices?limit=50 \
+ *     -Dload.clients=1000,5000,10000 \
+ *     -Dload.duration=PT30S
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final int MAX_LATENCY_MILLIS = 60_000;
+
+    public static void main(String[] args) throws InterruptedException {
+
+        URI target = URI.create(System.getProperty("load.url", "http://localhost:8080/api/invoices?limit=50"));
+        String businessId = System.getProperty("load.business-id");
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+
+        if (businessId == null) {
+            throw new IllegalArgumentException("-Dload.business-id is required");
+        }
+
+        List<Integer> clientCounts = new ArrayList<>();
+        for (String count : System.getProperty("load.clients", "1000,5000,10000").split(",")) {
+            clientCounts.add(Integer.parseInt(count.trim()));
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        HttpRequest request = HttpRequest.newBuilder(target)
+                .header("X-Business-ID", businessId)
+                .timeout(Duration.ofMillis(MAX_LATENCY_MILLIS))
+                .GET()
+                .build();
+
+        System.out.printf("%-8s %10s %10s %8s %12s %10s %10s%n",
+                "clients", "ok", "throttled", "errors", "ok req/s", "p50 ms", "p99 ms");
+
+        boolean throttled = false;
+
+        for (int clients : clientCounts) {
+            run(client, request, clients, warmup);
+            Result result = run(client, request, clients, duration);
+
+            System.out.printf("%-8d %10d %10d %8d %12.1f %10d %10d%n",
+                    clients,
+                    result.successes(),
+                    result.throttled(),
+                    result.errors(),
+                    result.successes() / (duration.toMillis() / 1000.0),
+                    result.percentile(0.50),
+                    result.percentile(0.99));
+
+            throttled |= result.throttled() > 0;
+        }
+
+        if (throttled) {
+            System.out.println("Requests were throttled; restart the application with "
+                    + "--smartinvoice.rate-limit.enabled=false to measure the server rather than the limiter");
+        }
+    }
+
+    private static Result run(HttpClient client,
+                              HttpRequest request,
+                              int clients,
+                              Duration duration) throws InterruptedException {
+
+        Result result = new Result();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            result.record(start, response.statusCode());
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            result.record(start, -1);
+                        }
+                    }
+                });
+            }
+        }
+
+        return result;
+    }
+
+    private static final class Result {
+
+        // Latencies of successful responses only; a 429 returns in microseconds
+        private final AtomicLongArray latencies = new AtomicLongArray(MAX_LATENCY_MILLIS + 1);
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        void record(long startNanos, int status) {
+
+            if (status == 429) {
+                throttled.increment();
+            } else if (status < 200 || status >= 300) {
+                errors.increment();
+            } else {
+                long millis = (System.nanoTime() - startNanos) / 1_000_000;
+                latencies.incrementAndGet((int) Math.min(millis, MAX_LATENCY_MILLIS));
+                successes.increment();
+            }
+        }
+
+        long successes() {
+            return successes.sum();
+        }
+
+        long throttled() {
+            return throttled.sum();
+        }
+
+        long errors() {
+            return errors.sum();
+        }
+
+        long percentile(double percentile) {
+
+            long target = (long) Math.ceil(successes() * percentile);
+            long seen = 0;
+
+            for (int millis = 0; millis < latencies.length(); millis++) {
+                seen += latencies.get(millis);
+                if (seen >= target && seen > 0) {
+                    return millis;
+                }
+            }
+
+            return MAX_LATENCY_MILLIS;
+        }
+    }
+}
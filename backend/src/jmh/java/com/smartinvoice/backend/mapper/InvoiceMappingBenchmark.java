@@ -0,0 +1,90 @@
+package com.smartinvoice.backend.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartinvoice.backend.domain.Invoice;
+import com.smartinvoice.backend.domain.InvoiceLineItem;
+import com.smartinvoice.backend.domain.InvoiceStatus;
+import com.smartinvoice.backend.dto.InvoiceResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invoice to response mapping and JSON serialization of the response, the
+ * work done on every invoice read.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InvoiceMappingBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int lineItemCount;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Invoice invoice;
+    private InvoiceResponse invoiceResponse;
+
+    @Setup
+    public void setUp() {
+
+        invoice = new Invoice();
+        invoice.setId(UUID.randomUUID());
+        invoice.setBusinessId(UUID.randomUUID());
+        invoice.setInvoiceNumber("BENCH-1");
+        invoice.setCustomerId(UUID.randomUUID());
+        invoice.setCurrency("INR");
+        invoice.setStatus(InvoiceStatus.SENT);
+        invoice.setIssueDate(LocalDate.of(2024, 1, 1));
+        invoice.setDueDate(LocalDate.of(2024, 1, 31));
+        invoice.setGst(18);
+        invoice.setSubtotal(new BigDecimal("1000.0000"));
+        invoice.setTaxTotal(new BigDecimal("180.0000"));
+        invoice.setDiscountTotal(BigDecimal.ZERO);
+        invoice.setTotalAmount(new BigDecimal("1180.0000"));
+        invoice.setAmountPaid(BigDecimal.ZERO);
+
+        List<InvoiceLineItem> lineItems = new ArrayList<>(lineItemCount);
+        for (int i = 0; i < lineItemCount; i++) {
+            InvoiceLineItem item = new InvoiceLineItem();
+            item.setId(UUID.randomUUID());
+            item.setInvoice(invoice);
+            item.setDescription("Item " + i);
+            item.setQuantity(BigDecimal.valueOf(i % 7 + 1));
+            item.setUnitPrice(new BigDecimal("149.9900"));
+            item.setTaxPercent(new BigDecimal("18.00"));
+            item.setDiscountPercent(BigDecimal.ZERO);
+            item.setLineTotal(new BigDecimal("176.9882"));
+            lineItems.add(item);
+        }
+        invoice.setLineItems(lineItems);
+
+        invoiceResponse = InvoiceMapper.toResponse(invoice);
+    }
+
+    @Benchmark
+    public InvoiceResponse mapInvoice() {
+        return InvoiceMapper.toResponse(invoice);
+    }
+
+    @Benchmark
+    public byte[] serializeInvoice() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(invoiceResponse);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeInvoice() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(InvoiceMapper.toResponse(invoice));
+    }
+}
@@ -0,0 +1,41 @@
+package com.smartinvoice.backend.mapper;
+
+import com.smartinvoice.backend.domain.Payment;
+import com.smartinvoice.backend.domain.PaymentStatus;
+import com.smartinvoice.backend.dto.PaymentResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentMappingBenchmark {
+
+    private Payment payment;
+
+    @Setup
+    public void setUp() {
+
+        payment = new Payment();
+        payment.setId(UUID.randomUUID());
+        payment.setBusinessId(UUID.randomUUID());
+        payment.setInvoiceId(UUID.randomUUID());
+        payment.setPaymentReference("PAY-1");
+        payment.setAmount(new BigDecimal("500.0000"));
+        payment.setCurrency("INR");
+        payment.setStatus(PaymentStatus.RECEIVED);
+        payment.setCreatedAt(LocalDateTime.of(2024, 1, 15, 10, 30));
+    }
+
+    @Benchmark
+    public PaymentResponse mapPayment() {
+        return PaymentMapper.toResponse(payment);
+    }
+}
@@ -0,0 +1,77 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.domain.Invoice;
+import com.smartinvoice.backend.domain.InvoiceStatus;
+import com.smartinvoice.backend.dto.CreateInvoiceRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Line item pricing on invoice creation and totals recalculation after a
+ * line item change, for small, typical and very large invoices.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InvoicePricingBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int lineItemCount;
+
+    private final UUID businessId = UUID.randomUUID();
+
+    private CreateInvoiceRequest request;
+    private Invoice invoice;
+
+    @Setup
+    public void setUp() {
+        request = createRequest(lineItemCount);
+        invoice = InvoiceService.buildInvoice(businessId, request);
+        invoice.setStatus(InvoiceStatus.DRAFT);
+    }
+
+    @Benchmark
+    public Invoice priceLineItems() {
+        return InvoiceService.buildInvoice(businessId, request);
+    }
+
+    @Benchmark
+    public BigDecimal recalculateTotals() {
+        InvoicePricing.applyTotals(invoice);
+        return invoice.getTotalAmount();
+    }
+
+    static CreateInvoiceRequest createRequest(int lineItemCount) {
+
+        CreateInvoiceRequest request = new CreateInvoiceRequest();
+        request.setInvoiceNumber("BENCH-1");
+        request.setCustomerId(UUID.randomUUID());
+        request.setCurrency("INR");
+        request.setIssueDate(LocalDate.of(2024, 1, 1));
+        request.setDueDate(LocalDate.of(2024, 1, 31));
+        request.setGst(18);
+
+        List<CreateInvoiceRequest.LineItemRequest> lineItems = new ArrayList<>(lineItemCount);
+        for (int i = 0; i < lineItemCount; i++) {
+            CreateInvoiceRequest.LineItemRequest item = new CreateInvoiceRequest.LineItemRequest();
+            item.setDescription("Item " + i);
+            item.setQuantity(BigDecimal.valueOf(i % 7 + 1));
+            item.setUnitPrice(new BigDecimal("149.99"));
+            item.setTaxPercent(new BigDecimal("18"));
+            item.setDiscountPercent(i % 3 == 0 ? new BigDecimal("5") : null);
+            lineItems.add(item);
+        }
+        request.setLineItems(lineItems);
+
+        return request;
+    }
+}
@@ -2,6 +2,7 @@ package com.smartinvoice.backend.controller;
 
 import com.smartinvoice.backend.dto.CreateCustomerRequest;
 import com.smartinvoice.backend.dto.CustomerResponse;
+import com.smartinvoice.backend.dto.PageResponse;
 import com.smartinvoice.backend.dto.UpdateCustomerRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -29,6 +30,14 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.list());
     }
 
+    @GetMapping(params = "limit")
+    public PageResponse<CustomerResponse> search(
+            @RequestParam Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String q) {
+        return customerService.search(q, cursor, limit);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CustomerResponse> get(@PathVariable UUID id) {
         return ResponseEntity.ok(customerService.get(id));
@@ -0,0 +1,46 @@
+package com.smartinvoice.backend.controller;
+
+import com.smartinvoice.backend.repository.ExportDataset;
+import com.smartinvoice.backend.service.ExportFormat;
+import com.smartinvoice.backend.service.ExportService;
+import com.smartinvoice.backend.tenant.BusinessContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final ExportService exportService;
+    private final StreamingResponses streamingResponses;
+
+    @GetMapping("/{dataset}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String dataset,
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        UUID businessId = BusinessContext.getBusinessId();
+        ExportDataset exportDataset = ExportDataset.fromFileName(dataset);
+        ExportFormat exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+
+        String fileName = exportDataset.getFileName() + "." + exportFormat.getExtension() + ".gz";
+
+        return ResponseEntity.ok()
+                .contentType(GZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(streamingResponses.capped(out ->
+                        exportService.export(businessId, exportDataset, exportFormat, out)));
+    }
+}
@@ -1,13 +1,24 @@
 package com.smartinvoice.backend.controller;
 
+import com.smartinvoice.backend.domain.InvoiceStatus;
 import com.smartinvoice.backend.dto.*;
+import com.smartinvoice.backend.repository.InvoiceFilter;
+import com.smartinvoice.backend.tenant.BusinessContext;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.smartinvoice.backend.service.InvoiceBulkService;
 import com.smartinvoice.backend.service.InvoiceService;
+import com.smartinvoice.backend.service.ReconciliationService;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +28,9 @@ import java.util.UUID;
 public class InvoiceController {
 
     private final InvoiceService invoiceService;
+    private final InvoiceBulkService invoiceBulkService;
+    private final ReconciliationService reconciliationService;
+    private final StreamingResponses streamingResponses;
 
     @PostMapping
     public ResponseEntity<InvoiceResponse> create(
@@ -27,6 +41,20 @@ public class InvoiceController {
         );
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkInvoiceResponse> createBulk(
+            @RequestBody List<CreateInvoiceRequest> requests) {
+        return ResponseEntity.ok(invoiceBulkService.createInvoices(requests));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkInvoiceResponse> createBulkNdjson(
+            Reader body) throws IOException {
+        return ResponseEntity.ok(
+                invoiceBulkService.importNdjson(new BufferedReader(body))
+        );
+    }
+
     @PostMapping("/{id}/send")
     public ResponseEntity<InvoiceResponse> sendInvoice(
             @PathVariable UUID id) {
@@ -55,6 +83,13 @@ public class InvoiceController {
         return ResponseEntity.ok(invoiceService.deleteLineItem(id, itemId));
     }
 
+    @PatchMapping("/{id}/line-items")
+    public ResponseEntity<InvoiceResponse> applyLineItemOperations(
+            @PathVariable UUID id,
+            @RequestBody List<LineItemOperationRequest> operations) {
+        return ResponseEntity.ok(invoiceService.applyLineItemOperations(id, operations));
+    }
+
     @PostMapping("/{id}/payments")
     public ResponseEntity<InvoiceResponse> recordPayment(
             @PathVariable UUID id,
@@ -69,6 +104,50 @@ public class InvoiceController {
     public List<InvoiceResponse> getAllInvoices() {
         return invoiceService.getAllInvoices();
     }
+
+    @GetMapping(params = "limit")
+    public PageResponse<?> listInvoices(
+            @RequestParam Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) InvoiceStatus status,
+            @RequestParam(required = false) UUID customerId,
+            @RequestParam(required = false) LocalDate issuedFrom,
+            @RequestParam(required = false) LocalDate issuedTo,
+            @RequestParam(defaultValue = "full") String view) {
+
+        InvoiceFilter filter = new InvoiceFilter(status, customerId, issuedFrom, issuedTo);
+
+        return isSummary(view)
+                ? invoiceService.listInvoiceSummaries(filter, cursor, limit)
+                : invoiceService.listInvoices(filter, cursor, limit);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamInvoices(
+            @RequestParam(required = false) InvoiceStatus status,
+            @RequestParam(required = false) UUID customerId,
+            @RequestParam(required = false) LocalDate issuedFrom,
+            @RequestParam(required = false) LocalDate issuedTo,
+            @RequestParam(defaultValue = "full") String view) {
+
+        UUID businessId = BusinessContext.getBusinessId();
+        InvoiceFilter filter = new InvoiceFilter(status, customerId, issuedFrom, issuedTo);
+        boolean summary = isSummary(view);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(streamingResponses.capped(out ->
+                        invoiceService.streamInvoices(businessId, filter, summary, out)));
+    }
+
+    private boolean isSummary(String view) {
+
+        return switch (view) {
+            case "summary" -> true;
+            case "full" -> false;
+            default -> throw new IllegalArgumentException("view must be 'summary' or 'full'");
+        };
+    }
     @GetMapping("/{id}")
     public InvoiceResponse getInvoiceById(@PathVariable UUID id) {
         return invoiceService.getInvoiceById(id);
@@ -79,6 +158,20 @@ public class InvoiceController {
         return invoiceService.getPaymentsByInvoice(id);
     }
 
+    @PostMapping(value = "/payments/reconciliation", consumes = "text/csv")
+    public ResponseEntity<ReconciliationReport> reconcileCsv(
+            Reader body) throws IOException {
+        return ResponseEntity.ok(reconciliationService.importCsv(body));
+    }
+
+    @PostMapping(value = "/payments/reconciliation", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ReconciliationReport> reconcileNdjson(
+            Reader body) throws IOException {
+        return ResponseEntity.ok(
+                reconciliationService.importNdjson(new BufferedReader(body))
+        );
+    }
+
     @PostMapping("/payments/{paymentId}/refund")
     public ResponseEntity<InvoiceResponse> refundPayment(
             @PathVariable UUID paymentId,
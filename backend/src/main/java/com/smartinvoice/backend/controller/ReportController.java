@@ -1,12 +1,18 @@
 package com.smartinvoice.backend.controller;
 
 import com.smartinvoice.backend.dto.*;
+import com.smartinvoice.backend.repository.ReceivableSort;
+import com.smartinvoice.backend.tenant.BusinessContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.smartinvoice.backend.service.ReportService;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -14,6 +20,7 @@ import java.util.List;
 public class ReportController {
 
     private final ReportService reportService;
+    private final StreamingResponses streamingResponses;
 
     @GetMapping("/revenue")
     public RevenueResponse revenue(
@@ -27,11 +34,46 @@ public class ReportController {
         return reportService.outstandingInvoices();
     }
 
+    @GetMapping(value = "/outstanding", params = "limit")
+    public PageResponse<OutstandingInvoiceResponse> outstandingPage(
+            @RequestParam Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "remaining") String sort) {
+        return reportService.outstandingInvoices(parseSort(sort), cursor, limit);
+    }
+
+    @GetMapping(value = "/outstanding", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOutstanding(
+            @RequestParam(defaultValue = "remaining") String sort) {
+        return stream(false, parseSort(sort));
+    }
+
     @GetMapping("/overdue")
     public List<OutstandingInvoiceResponse> overdue() {
         return reportService.overdueInvoices();
     }
 
+    @GetMapping(value = "/overdue", params = "limit")
+    public PageResponse<OutstandingInvoiceResponse> overduePage(
+            @RequestParam Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "remaining") String sort) {
+        return reportService.overdueInvoices(parseSort(sort), cursor, limit);
+    }
+
+    @GetMapping(value = "/overdue", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOverdue(
+            @RequestParam(defaultValue = "remaining") String sort) {
+        return stream(true, parseSort(sort));
+    }
+
+    @GetMapping("/aging")
+    public AgingReportResponse aging(
+            @RequestParam(required = false) LocalDate asOf,
+            @RequestParam(required = false) String currency) {
+        return reportService.aging(asOf == null ? LocalDate.now() : asOf, currency);
+    }
+
     @GetMapping("/revenue-by-customer")
     public List<RevenueByCustomerResponse> revenueByCustomer() {
         return reportService.revenueByCustomer();
@@ -41,4 +83,29 @@ public class ReportController {
     public List<MonthlyRevenueResponse> monthly() {
         return reportService.monthlyRevenue();
     }
+
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Void> rebuildRollups() {
+        reportService.rebuildRollups();
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(boolean overdue, ReceivableSort sort) {
+
+        UUID businessId = BusinessContext.getBusinessId();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(streamingResponses.capped(out ->
+                        reportService.streamReceivables(businessId, overdue, sort, out)));
+    }
+
+    private ReceivableSort parseSort(String sort) {
+
+        return switch (sort) {
+            case "remaining" -> ReceivableSort.REMAINING_AMOUNT;
+            case "due-date" -> ReceivableSort.DUE_DATE;
+            default -> throw new IllegalArgumentException("sort must be 'remaining' or 'due-date'");
+        };
+    }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.smartinvoice.backend.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+
+/**
+ * Server-side cap for streamed responses. The async request timeout is
+ * disabled (spring.mvc.async.request-timeout=-1) so that long exports are
+ * not cut off by the container, and its own timeout would end the request
+ * while the streaming thread still holds its cursor and connection. Instead
+ * a stream that runs past max-duration fails on its next write, which
+ * unwinds the query on the streaming thread itself.
+ */
+@Component
+public class StreamingResponses {
+
+    private final Duration maxDuration;
+
+    public StreamingResponses(
+            @Value("${smartinvoice.streaming.max-duration:PT2H}") Duration maxDuration) {
+
+        this.maxDuration = maxDuration;
+    }
+
+    public StreamingResponseBody capped(StreamingResponseBody body) {
+        return out -> body.writeTo(new DeadlineOutputStream(out, System.nanoTime() + maxDuration.toNanos()));
+    }
+
+    private final class DeadlineOutputStream extends FilterOutputStream {
+
+        private final long deadline;
+
+        private DeadlineOutputStream(OutputStream out, long deadline) {
+            super(out);
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            checkDeadline();
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkDeadline();
+            out.write(b, off, len);
+        }
+
+        private void checkDeadline() throws IOException {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IOException("Streaming response exceeded " + maxDuration);
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.smartinvoice.backend.domain;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -66,10 +67,14 @@ public class Invoice {
     @Column
     private Integer gst ;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "invoice",
             cascade = CascadeType.ALL,
             orphanRemoval = true)
-
+    @BatchSize(size = 100)
     private List<InvoiceLineItem> lineItems = new ArrayList<>();
 
 }
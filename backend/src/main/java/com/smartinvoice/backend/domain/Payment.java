@@ -40,6 +40,9 @@ public class Payment {
     @Column(length = 3, nullable = false)
     private String currency;
 
+    @Column(name = "refunded_amount", precision = 19, scale = 4, nullable = false)
+    private BigDecimal refundedAmount = BigDecimal.ZERO;
+
     @Enumerated(EnumType.STRING)
     @JdbcTypeCode(SqlTypes.NAMED_ENUM)
     @Column(columnDefinition = "payment_status", nullable = false)
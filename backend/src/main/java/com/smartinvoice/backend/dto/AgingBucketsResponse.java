@@ -0,0 +1,22 @@
+package com.smartinvoice.backend.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class AgingBucketsResponse {
+    private String currency;
+    private UUID customerId;
+    private String customerName;
+    private long invoiceCount;
+    private BigDecimal current;
+    private BigDecimal days1To30;
+    private BigDecimal days31To60;
+    private BigDecimal days61To90;
+    private BigDecimal over90;
+    private BigDecimal total;
+}
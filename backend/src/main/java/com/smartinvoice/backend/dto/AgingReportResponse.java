@@ -0,0 +1,15 @@
+package com.smartinvoice.backend.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Builder
+public class AgingReportResponse {
+    private LocalDate asOf;
+    private List<AgingBucketsResponse> totals;
+    private List<AgingBucketsResponse> customers;
+}
@@ -0,0 +1,16 @@
+package com.smartinvoice.backend.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@Builder
+public class BulkInvoiceItemResult {
+
+    private int index;
+    private String invoiceNumber;
+    private UUID invoiceId;
+    private String error;
+}
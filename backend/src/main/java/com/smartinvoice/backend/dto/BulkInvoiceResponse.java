@@ -0,0 +1,17 @@
+package com.smartinvoice.backend.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class BulkInvoiceResponse {
+
+    private int total;
+    private int created;
+    private int failed;
+
+    private List<BulkInvoiceItemResult> results;
+}
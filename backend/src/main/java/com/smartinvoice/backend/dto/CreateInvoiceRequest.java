@@ -1,5 +1,6 @@
 package com.smartinvoice.backend.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -34,7 +35,7 @@ public class CreateInvoiceRequest {
     private Integer gst ;
 
     @NotEmpty
-    private List<LineItemRequest> lineItems;
+    private List<@Valid LineItemRequest> lineItems;
     @Getter
     @Setter
     public static class LineItemRequest {
@@ -0,0 +1,24 @@
+package com.smartinvoice.backend.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class InvoiceSummaryResponse {
+
+    private UUID id;
+    private String invoiceNumber;
+    private UUID customerId;
+    private String currency;
+    private String status;
+    private LocalDate issueDate;
+    private LocalDate dueDate;
+
+    private BigDecimal totalAmount;
+    private BigDecimal amountPaid;
+}
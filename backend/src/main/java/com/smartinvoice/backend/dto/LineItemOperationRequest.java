@@ -0,0 +1,27 @@
+package com.smartinvoice.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+public class LineItemOperationRequest {
+
+    public enum Operation {
+        ADD,
+        UPDATE,
+        DELETE
+    }
+
+    @NotNull
+    private Operation op;
+
+    private UUID id;
+
+    @Valid
+    private CreateInvoiceRequest.LineItemRequest item;
+}
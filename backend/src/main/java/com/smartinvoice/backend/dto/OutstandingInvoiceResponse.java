@@ -4,6 +4,7 @@ import lombok.Builder;
 import lombok.Getter;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.UUID;
 
 @Getter
@@ -12,5 +13,6 @@ public class OutstandingInvoiceResponse {
     private UUID invoiceId;
     private String invoiceNumber;
     private String customerName;
+    private LocalDate dueDate;
     private BigDecimal remainingAmount;
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.smartinvoice.backend.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class PageResponse<T> {
+
+    private List<T> items;
+    private String nextCursor;
+}
@@ -13,6 +13,7 @@ public class PaymentResponse {
 
     private UUID id;
     private BigDecimal amount;
+    private BigDecimal refundedAmount;
     private String paymentReference;
     private String currency;
     private String status;
@@ -0,0 +1,18 @@
+package com.smartinvoice.backend.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Builder
+public class ReconciliationLineResult {
+
+    private int line;
+    private String invoiceNumber;
+    private String paymentReference;
+    private BigDecimal amount;
+    private String outcome;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.smartinvoice.backend.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Builder
+public class ReconciliationReport {
+
+    private int total;
+    private int applied;
+    private int alreadyApplied;
+    private int mismatched;
+    private BigDecimal appliedAmount;
+    private List<ReconciliationLineResult> mismatches;
+}
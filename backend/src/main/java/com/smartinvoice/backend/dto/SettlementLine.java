@@ -0,0 +1,19 @@
+package com.smartinvoice.backend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+public class SettlementLine {
+
+    private String invoiceNumber;
+
+    private String paymentReference;
+
+    private BigDecimal amount;
+
+    private String currency;
+}
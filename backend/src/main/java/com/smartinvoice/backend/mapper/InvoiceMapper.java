@@ -4,6 +4,7 @@ package com.smartinvoice.backend.mapper;
 import com.smartinvoice.backend.domain.Invoice;
 import com.smartinvoice.backend.domain.InvoiceLineItem;
 import com.smartinvoice.backend.dto.InvoiceResponse;
+import com.smartinvoice.backend.dto.InvoiceSummaryResponse;
 import com.smartinvoice.backend.dto.LineItemResponse;
 
 import java.util.stream.Collectors;
@@ -34,6 +35,21 @@ public class InvoiceMapper {
                 .build();
     }
 
+    public static InvoiceSummaryResponse toSummary(Invoice invoice) {
+
+        return InvoiceSummaryResponse.builder()
+                .id(invoice.getId())
+                .invoiceNumber(invoice.getInvoiceNumber())
+                .customerId(invoice.getCustomerId())
+                .currency(invoice.getCurrency())
+                .status(invoice.getStatus().name())
+                .issueDate(invoice.getIssueDate())
+                .dueDate(invoice.getDueDate())
+                .totalAmount(invoice.getTotalAmount())
+                .amountPaid(invoice.getAmountPaid())
+                .build();
+    }
+
     private static LineItemResponse mapLineItem(InvoiceLineItem item) {
 
         return LineItemResponse.builder()
@@ -9,6 +9,7 @@ public class PaymentMapper {
         return PaymentResponse.builder()
                 .id(payment.getId())
                 .amount(payment.getAmount())
+                .refundedAmount(payment.getRefundedAmount())
                 .paymentReference(payment.getPaymentReference())
                 .currency(payment.getCurrency())
                 .status(payment.getStatus().name())
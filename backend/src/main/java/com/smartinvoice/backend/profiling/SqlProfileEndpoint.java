@@ -0,0 +1,109 @@
+package com.smartinvoice.backend.profiling;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Actuator endpoint for statement profiling. GET /actuator/sqlprofile shows
+ * the profiler settings and counters together with Hibernate statistics;
+ * POST changes any of enabled, slowQueryThresholdMillis and
+ * hibernateStatistics without a restart.
+ */
+@Component
+@Endpoint(id = "sqlprofile")
+@RequiredArgsConstructor
+public class SqlProfileEndpoint {
+
+    private final StatementProfiler statementProfiler;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public SqlProfile profile() {
+
+        Statistics statistics = statistics();
+
+        return new SqlProfile(
+                statementProfiler.isEnabled(),
+                statementProfiler.getSlowQueryThreshold().toMillis(),
+                statementProfiler.getStatementCount(),
+                statementProfiler.getSlowStatementCount(),
+                statistics.isStatisticsEnabled(),
+                statistics.isStatisticsEnabled() ? HibernateStatistics.of(statistics) : null);
+    }
+
+    @WriteOperation
+    public SqlProfile configure(@Nullable Boolean enabled,
+                                @Nullable Long slowQueryThresholdMillis,
+                                @Nullable Boolean hibernateStatistics) {
+
+        if (enabled != null) {
+            statementProfiler.setEnabled(enabled);
+        }
+
+        if (slowQueryThresholdMillis != null) {
+            if (slowQueryThresholdMillis < 0) {
+                throw new IllegalArgumentException("slowQueryThresholdMillis must not be negative");
+            }
+            statementProfiler.setSlowQueryThreshold(Duration.ofMillis(slowQueryThresholdMillis));
+        }
+
+        if (hibernateStatistics != null) {
+            Statistics statistics = statistics();
+            if (hibernateStatistics && !statistics.isStatisticsEnabled()) {
+                statistics.clear();
+            }
+            statistics.setStatisticsEnabled(hibernateStatistics);
+        }
+
+        return profile();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public record SqlProfile(boolean enabled,
+                             long slowQueryThresholdMillis,
+                             long statements,
+                             long slowStatements,
+                             boolean hibernateStatistics,
+                             HibernateStatistics hibernate) {
+    }
+
+    public record HibernateStatistics(long prepareStatementCount,
+                                      long queryExecutionCount,
+                                      long queryExecutionMaxTime,
+                                      String queryExecutionMaxTimeQueryString,
+                                      long entityLoadCount,
+                                      long entityFetchCount,
+                                      long collectionLoadCount,
+                                      long collectionFetchCount,
+                                      long flushCount,
+                                      long optimisticFailureCount,
+                                      long transactionCount) {
+
+        static HibernateStatistics of(Statistics statistics) {
+            return new HibernateStatistics(
+                    statistics.getPrepareStatementCount(),
+                    statistics.getQueryExecutionCount(),
+                    statistics.getQueryExecutionMaxTime(),
+                    statistics.getQueryExecutionMaxTimeQueryString(),
+                    statistics.getEntityLoadCount(),
+                    statistics.getEntityFetchCount(),
+                    statistics.getCollectionLoadCount(),
+                    statistics.getCollectionFetchCount(),
+                    statistics.getFlushCount(),
+                    statistics.getOptimisticFailureCount(),
+                    statistics.getTransactionCount());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.smartinvoice.backend.profiling;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Listens to every JDBC execution on the application data source, from JPA
+ * and JdbcTemplate alike. Executions are added to the statement count and
+ * JDBC time of the current request, if {@link StatementProfilingFilter} is
+ * tracking one, and executions slower than the threshold are logged with
+ * their literals redacted. Bound parameters are never logged.
+ *
+ * Profiling can be switched on and off, and the threshold changed, at
+ * runtime through the "sqlprofile" actuator endpoint.
+ */
+@Slf4j
+@Component
+public class StatementProfiler implements QueryExecutionListener {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    private static final ThreadLocal<RequestStatements> currentRequest = new ThreadLocal<>();
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder slowStatements = new LongAdder();
+
+    private volatile boolean enabled;
+    private volatile Duration slowQueryThreshold;
+
+    public StatementProfiler(
+            @Value("${smartinvoice.sql-profiling.enabled:true}") boolean enabled,
+            @Value("${smartinvoice.sql-profiling.slow-query-threshold:PT0.5S}") Duration slowQueryThreshold) {
+
+        this.enabled = enabled;
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+
+        if (!enabled) {
+            return;
+        }
+
+        long elapsedMillis = execInfo.getElapsedTime();
+
+        statements.increment();
+
+        RequestStatements request = currentRequest.get();
+        if (request != null) {
+            request.record(elapsedMillis);
+        }
+
+        if (elapsedMillis >= slowQueryThreshold.toMillis()) {
+            slowStatements.increment();
+            log.warn("Slow query took {} ms{}: {}",
+                    elapsedMillis,
+                    execInfo.isBatch() ? " (batch of " + execInfo.getBatchSize() + ")" : "",
+                    queryInfoList.stream()
+                            .map(q -> redact(q.getQuery()))
+                            .collect(Collectors.joining("; ")));
+        }
+    }
+
+    /**
+     * Starts counting the statements executed by the current thread.
+     */
+    public RequestStatements begin() {
+        RequestStatements request = new RequestStatements();
+        currentRequest.set(request);
+        return request;
+    }
+
+    public void end() {
+        currentRequest.remove();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    public long getStatementCount() {
+        return statements.sum();
+    }
+
+    public long getSlowStatementCount() {
+        return slowStatements.sum();
+    }
+
+    static String redact(String sql) {
+        String redacted = STRING_LITERAL.matcher(sql).replaceAll("?");
+        return NUMERIC_LITERAL.matcher(redacted).replaceAll("?");
+    }
+
+    /**
+     * Statement count and total JDBC time of one request.
+     */
+    public static final class RequestStatements {
+
+        private int count;
+        private long millis;
+
+        void record(long elapsedMillis) {
+            count++;
+            millis += elapsedMillis;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+    }
+}
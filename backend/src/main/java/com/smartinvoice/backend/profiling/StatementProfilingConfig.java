@@ -0,0 +1,40 @@
+package com.smartinvoice.backend.profiling;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application data source so every statement passes through
+ * {@link StatementProfiler}. The pool itself is untouched and can still be
+ * unwrapped for its metrics.
+ */
+@Configuration
+public class StatementProfilingConfig {
+
+    @Bean
+    public static BeanPostProcessor statementProfilingDataSourcePostProcessor(
+            ObjectProvider<StatementProfiler> statementProfiler) {
+
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(statementProfiler.getObject())
+                            .build();
+                }
+
+                return bean;
+            }
+        };
+    }
+}
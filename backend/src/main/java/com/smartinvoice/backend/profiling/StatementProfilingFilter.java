@@ -0,0 +1,68 @@
+package com.smartinvoice.backend.profiling;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the JDBC statements of each request while profiling is enabled,
+ * recording the statement count and total JDBC time as the
+ * "smartinvoice.jdbc.request.statements" and "smartinvoice.jdbc.request.time"
+ * distributions and logging them at debug level.
+ */
+@Slf4j
+@Component
+public class StatementProfilingFilter extends OncePerRequestFilter {
+
+    private final StatementProfiler statementProfiler;
+    private final DistributionSummary statementsPerRequest;
+    private final Timer jdbcTimePerRequest;
+
+    public StatementProfilingFilter(StatementProfiler statementProfiler, MeterRegistry meterRegistry) {
+
+        this.statementProfiler = statementProfiler;
+        this.statementsPerRequest = DistributionSummary.builder("smartinvoice.jdbc.request.statements")
+                .register(meterRegistry);
+        this.jdbcTimePerRequest = Timer.builder("smartinvoice.jdbc.request.time")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain)
+            throws ServletException, IOException {
+
+        if (!statementProfiler.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        StatementProfiler.RequestStatements statements = statementProfiler.begin();
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            statementProfiler.end();
+
+            statementsPerRequest.record(statements.getCount());
+            jdbcTimePerRequest.record(statements.getMillis(), TimeUnit.MILLISECONDS);
+
+            log.debug("{} {}: {} statements, {} ms in JDBC",
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    statements.getCount(),
+                    statements.getMillis());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.smartinvoice.backend.repository;
+
+import com.smartinvoice.backend.dto.AgingBucketsResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Receivables aging. Open invoices are bucketed by days past due in a single
+ * aggregate over the V10 covering index; grouping sets produce the rows per
+ * currency and customer and the per-currency totals in the same pass.
+ */
+@Repository
+public class AgingReportRepository {
+
+    static final String AGING_REPORT = """
+        WITH aged AS (
+            SELECT i.currency, i.customer_id,
+                   i.total_amount - i.amount_paid AS remaining,
+                   CAST(:asOf AS date) - i.due_date AS days_past_due
+            FROM invoices i
+            WHERE i.business_id = :businessId
+            AND i.status IN ('SENT', 'PARTIALLY_PAID', 'OVERDUE')
+            AND i.amount_paid < i.total_amount
+            AND (CAST(:currency AS text) IS NULL OR i.currency = CAST(:currency AS text))
+        ), buckets AS (
+            SELECT currency, customer_id,
+                   GROUPING(customer_id) AS is_total,
+                   COUNT(*) AS invoice_count,
+                   COALESCE(SUM(remaining) FILTER (WHERE days_past_due IS NULL OR days_past_due <= 0), 0) AS current_due,
+                   COALESCE(SUM(remaining) FILTER (WHERE days_past_due BETWEEN 1 AND 30), 0) AS days_1_30,
+                   COALESCE(SUM(remaining) FILTER (WHERE days_past_due BETWEEN 31 AND 60), 0) AS days_31_60,
+                   COALESCE(SUM(remaining) FILTER (WHERE days_past_due BETWEEN 61 AND 90), 0) AS days_61_90,
+                   COALESCE(SUM(remaining) FILTER (WHERE days_past_due > 90), 0) AS over_90,
+                   SUM(remaining) AS total
+            FROM aged
+            GROUP BY GROUPING SETS ((currency, customer_id), (currency))
+        )
+        SELECT b.*, c.name AS customer_name
+        FROM buckets b
+        LEFT JOIN customers c ON c.id = b.customer_id
+        ORDER BY b.currency, b.is_total DESC, b.total DESC, b.customer_id
+        """;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public AgingReportRepository(JdbcTemplate jdbcTemplate) {
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Returns, per currency, the business-wide total row (without a
+     * customer) followed by one row per customer, largest balance first.
+     * Only invoices in the given currency are aged when it is not null.
+     */
+    public List<AgingBucketsResponse> aging(UUID businessId, LocalDate asOf, String currency) {
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("businessId", businessId)
+                .addValue("asOf", asOf)
+                .addValue("currency", currency);
+
+        return namedJdbcTemplate.query(AGING_REPORT, params, (rs, rowNum) ->
+                AgingBucketsResponse.builder()
+                        .currency(rs.getString("currency"))
+                        .customerId(rs.getObject("customer_id", UUID.class))
+                        .customerName(rs.getString("customer_name"))
+                        .invoiceCount(rs.getLong("invoice_count"))
+                        .current(rs.getBigDecimal("current_due"))
+                        .days1To30(rs.getBigDecimal("days_1_30"))
+                        .days31To60(rs.getBigDecimal("days_31_60"))
+                        .days61To90(rs.getBigDecimal("days_61_90"))
+                        .over90(rs.getBigDecimal("over_90"))
+                        .total(rs.getBigDecimal("total"))
+                        .build());
+    }
+}
@@ -0,0 +1,78 @@
+package com.smartinvoice.backend.repository;
+
+import com.smartinvoice.backend.domain.AuditLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class AuditLogJdbcRepository {
+
+    private static final String INSERT_AUDIT_LOG = """
+        INSERT INTO audit_logs (id, business_id, entity_type, entity_id, action,
+                                old_value, new_value, created_at)
+        VALUES (?, ?, ?, ?, ?, CAST(? AS jsonb), CAST(? AS jsonb), ?)
+        """;
+
+    private static final String INSERT_OUTBOX = """
+        INSERT INTO audit_outbox (id, business_id, entity_type, entity_id, action,
+                                  old_value, new_value, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String RELAY_OUTBOX = """
+        WITH moved AS (
+            DELETE FROM audit_outbox
+            WHERE id IN (
+                SELECT id
+                FROM audit_outbox
+                ORDER BY created_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING id, business_id, entity_type, entity_id, action,
+                      old_value, new_value, created_at
+        )
+        INSERT INTO audit_logs (id, business_id, entity_type, entity_id, action,
+                                old_value, new_value, created_at)
+        SELECT id, business_id, entity_type, entity_id, action,
+               CAST(old_value AS jsonb), CAST(new_value AS jsonb), created_at
+        FROM moved
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<AuditLog> logs) {
+        batchInsert(INSERT_AUDIT_LOG, logs);
+    }
+
+    public void insertOutbox(List<AuditLog> logs) {
+        batchInsert(INSERT_OUTBOX, logs);
+    }
+
+    /**
+     * Moves up to {@code batchSize} outbox entries into audit_logs in one
+     * statement and returns how many were moved. Rows locked by another node
+     * are skipped.
+     */
+    public int relayOutbox(int batchSize) {
+        return jdbcTemplate.update(RELAY_OUTBOX, batchSize);
+    }
+
+    private void batchInsert(String sql, List<AuditLog> logs) {
+
+        jdbcTemplate.batchUpdate(sql, logs, logs.size(), (ps, log) -> {
+            ps.setObject(1, log.getId());
+            ps.setObject(2, log.getBusinessId());
+            ps.setString(3, log.getEntityType());
+            ps.setObject(4, log.getEntityId());
+            ps.setString(5, log.getAction());
+            ps.setString(6, log.getOldValue());
+            ps.setString(7, log.getNewValue());
+            ps.setObject(8, log.getCreatedAt());
+        });
+    }
+}
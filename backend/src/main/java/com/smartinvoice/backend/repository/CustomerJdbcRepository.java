@@ -0,0 +1,126 @@
+package com.smartinvoice.backend.repository;
+
+import com.smartinvoice.backend.domain.Customer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+@Repository
+public class CustomerJdbcRepository {
+
+    /**
+     * Queries shorter than this match name prefixes only; trigram search
+     * needs at least three characters to use its index.
+     */
+    public static final int MIN_FUZZY_QUERY_LENGTH = 3;
+
+    // Must match the expressions of the V9 and V13 indexes exactly
+    private static final String SORT_NAME = "lower(c.name) COLLATE \"C\"";
+    private static final String SEARCH_TEXT =
+            "lower(c.name || ' ' || coalesce(c.email, '') || ' ' || coalesce(c.phone, ''))";
+
+    private static final String ORDER_BY = " ORDER BY " + SORT_NAME + ", c.id LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public CustomerJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Returns up to {@code limit} customers ordered by lower-cased name and
+     * id, starting strictly after the customer with the given name and id
+     * when present.
+     * A query matches customers whose name starts with it; queries of at
+     * least {@link #MIN_FUZZY_QUERY_LENGTH} characters also match substrings
+     * and close misspellings of the name, email or phone.
+     */
+    public List<Customer> findPage(UUID businessId,
+                                   String query,
+                                   String afterName,
+                                   UUID afterId,
+                                   int limit) {
+
+        MapSqlParameterSource params = new MapSqlParameterSource("businessId", businessId)
+                .addValue("limit", limit);
+
+        String normalized = query == null ? null : query.toLowerCase(Locale.ROOT);
+
+        if (normalized != null) {
+            params.addValue("prefix", escapeLike(normalized) + "%");
+            params.addValue("contains", "%" + escapeLike(normalized) + "%");
+            params.addValue("query", normalized);
+        }
+
+        if (afterId != null) {
+            params.addValue("afterName", afterName);
+            params.addValue("afterId", afterId);
+        }
+
+        return namedJdbcTemplate.query(pageSql(normalized, afterId != null), params, (rs, rowNum) -> {
+            Customer customer = new Customer();
+            customer.setId(rs.getObject("id", UUID.class));
+            customer.setBusinessId(rs.getObject("business_id", UUID.class));
+            customer.setName(rs.getString("name"));
+            customer.setEmail(rs.getString("email"));
+            customer.setPhone(rs.getString("phone"));
+            customer.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+            return customer;
+        });
+    }
+
+    /**
+     * Listing and prefix search walk idx_customers_business_lower_name_id in
+     * order and stop at the limit. A fuzzy search runs the prefix match as
+     * that same ordered scan and the substring and similarity match as a
+     * separate branch on the tenant-scoped trigram index, so an OR of the two
+     * never forces a sort of every prefix match.
+     */
+    static String pageSql(String query, boolean afterKey) {
+
+        if (query == null) {
+            return branch(null, afterKey) + ORDER_BY;
+        }
+
+        if (query.length() < MIN_FUZZY_QUERY_LENGTH) {
+            return branch(SORT_NAME + " LIKE :prefix", afterKey) + ORDER_BY;
+        }
+
+        return "(" + branch(SORT_NAME + " LIKE :prefix", afterKey) + ORDER_BY + ")"
+                + " UNION "
+                + "(" + branch("(" + SEARCH_TEXT + " LIKE :contains OR :query <% " + SEARCH_TEXT + ")", afterKey)
+                + ORDER_BY + ")"
+                + " ORDER BY sort_name COLLATE \"C\", id LIMIT :limit";
+    }
+
+    private static String branch(String match, boolean afterKey) {
+
+        StringBuilder sql = new StringBuilder("""
+                SELECT c.id, c.business_id, c.name, c.email, c.phone, c.created_at,
+                       %s AS sort_name
+                FROM customers c
+                WHERE c.business_id = :businessId
+                """.formatted(SORT_NAME));
+
+        if (match != null) {
+            sql.append(" AND ").append(match);
+        }
+
+        if (afterKey) {
+            sql.append(" AND (").append(SORT_NAME).append(", c.id)")
+                    .append(" > (lower(CAST(:afterName AS text)) COLLATE \"C\", :afterId)");
+        }
+
+        return sql.toString();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
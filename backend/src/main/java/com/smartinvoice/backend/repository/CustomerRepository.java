@@ -3,7 +3,10 @@ package com.smartinvoice.backend.repository;
 
 import com.smartinvoice.backend.domain.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,4 +16,13 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
     Optional<Customer> findByBusinessIdAndId(UUID businessId, UUID id);
 
     List<Customer> findAllByBusinessId(UUID businessId);
+
+    @Query("""
+        SELECT c.id
+        FROM Customer c
+        WHERE c.businessId = :businessId
+        AND c.id IN :ids
+        """)
+    List<UUID> findExistingIds(@Param("businessId") UUID businessId,
+                               @Param("ids") Collection<UUID> ids);
 }
\ No newline at end of file
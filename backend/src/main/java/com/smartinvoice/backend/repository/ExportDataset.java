@@ -0,0 +1,64 @@
+package com.smartinvoice.backend.repository;
+
+/**
+ * Tables of a tenant export. Each dataset is read with a single query.
+ */
+public enum ExportDataset {
+
+    INVOICES("invoices", """
+        SELECT i.id, i.invoice_number, i.customer_id, i.currency, i.status,
+               i.issue_date, i.due_date, i.gst, i.subtotal, i.tax_total,
+               i.discount_total, i.total_amount, i.amount_paid
+        FROM invoices i
+        WHERE i.business_id = ?
+        """),
+
+    LINE_ITEMS("line-items", """
+        SELECT li.id, li.invoice_id, li.description, li.quantity, li.unit_price,
+               li.tax_percent, li.discount_percent, li.line_total
+        FROM invoice_line_items li
+        JOIN invoices i ON i.id = li.invoice_id
+        WHERE i.business_id = ?
+        """),
+
+    PAYMENTS("payments", """
+        SELECT p.id, p.invoice_id, p.payment_reference, p.amount, p.refunded_amount,
+               p.currency, p.status, p.created_at
+        FROM payments p
+        WHERE p.business_id = ?
+        """),
+
+    REFUNDS("refunds", """
+        SELECT r.id, r.payment_id, r.amount, r.reason, r.created_at
+        FROM refunds r
+        JOIN payments p ON p.id = r.payment_id
+        WHERE p.business_id = ?
+        """);
+
+    private final String fileName;
+    private final String sql;
+
+    ExportDataset(String fileName, String sql) {
+        this.fileName = fileName;
+        this.sql = sql;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    public static ExportDataset fromFileName(String fileName) {
+
+        for (ExportDataset dataset : values()) {
+            if (dataset.fileName.equals(fileName)) {
+                return dataset;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown export dataset: " + fileName);
+    }
+}
@@ -0,0 +1,87 @@
+package com.smartinvoice.backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+@Repository
+public class ExportJdbcRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate cursorJdbcTemplate;
+
+    public ExportJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.cursorJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cursorJdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    /**
+     * Streams every row of the dataset for the business from a forward-only
+     * cursor, in no particular order. The column names are passed once before
+     * the first row. Values are strings, numbers or null; dates, timestamps,
+     * ids and enums are converted to their ISO or text form. Must run inside
+     * a transaction so the driver fetches rows in batches.
+     */
+    public void stream(ExportDataset dataset, UUID businessId, RowSink sink) {
+
+        cursorJdbcTemplate.query(dataset.getSql(), (ResultSetExtractor<Void>) rs -> {
+
+            ResultSetMetaData metaData = rs.getMetaData();
+            int columnCount = metaData.getColumnCount();
+
+            String[] columns = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columns[i] = metaData.getColumnLabel(i + 1);
+            }
+            sink.columns(columns);
+
+            Object[] row = new Object[columnCount];
+
+            while (rs.next()) {
+                for (int i = 0; i < columnCount; i++) {
+                    row[i] = value(rs, i + 1);
+                }
+                sink.row(row);
+            }
+
+            return null;
+        }, businessId);
+    }
+
+    private static Object value(ResultSet rs, int column) throws SQLException {
+
+        Object value = rs.getObject(column);
+
+        if (value == null || value instanceof Number || value instanceof String) {
+            return value;
+        }
+
+        if (value instanceof Date date) {
+            return date.toLocalDate().toString();
+        }
+
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+
+        return value.toString();
+    }
+
+    /**
+     * Receives the rows of an export. The row array is reused between calls.
+     */
+    public interface RowSink {
+
+        void columns(String[] columns);
+
+        void row(Object[] values);
+    }
+}
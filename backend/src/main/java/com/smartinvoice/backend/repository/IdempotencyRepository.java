@@ -2,7 +2,12 @@ package com.smartinvoice.backend.repository;
 
 import com.smartinvoice.backend.domain.IdempotencyKey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +16,45 @@ public interface IdempotencyRepository
 
     Optional<IdempotencyKey>
     findByBusinessIdAndIdempotencyKey(UUID businessId, String key);
+
+    /**
+     * Reserves the key before the payment is made. Returns 0 when the key is
+     * already taken; a concurrent claim blocks until the first one commits or
+     * rolls back.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO idempotency_keys (id, business_id, idempotency_key, created_at)
+        VALUES (:id, :businessId, :idempotencyKey, :createdAt)
+        ON CONFLICT (business_id, idempotency_key) DO NOTHING
+        """, nativeQuery = true)
+    int claim(@Param("id") UUID id,
+              @Param("businessId") UUID businessId,
+              @Param("idempotencyKey") String idempotencyKey,
+              @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query(value = """
+        UPDATE idempotency_keys
+        SET response_body = CAST(:responseBody AS jsonb)
+        WHERE business_id = :businessId
+        AND idempotency_key = :idempotencyKey
+        """, nativeQuery = true)
+    int storeResponse(@Param("businessId") UUID businessId,
+                      @Param("idempotencyKey") String idempotencyKey,
+                      @Param("responseBody") String responseBody);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+        DELETE FROM idempotency_keys
+        WHERE id IN (
+            SELECT id
+            FROM idempotency_keys
+            WHERE created_at < :cutoff
+            LIMIT :batchSize
+        )
+        """, nativeQuery = true)
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff,
+                            @Param("batchSize") int batchSize);
 }
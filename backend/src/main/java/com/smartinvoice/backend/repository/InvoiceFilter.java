@@ -0,0 +1,12 @@
+package com.smartinvoice.backend.repository;
+
+import com.smartinvoice.backend.domain.InvoiceStatus;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record InvoiceFilter(InvoiceStatus status,
+                            UUID customerId,
+                            LocalDate issuedFrom,
+                            LocalDate issuedTo) {
+}
@@ -0,0 +1,316 @@
+package com.smartinvoice.backend.repository;
+
+import com.smartinvoice.backend.domain.Invoice;
+import com.smartinvoice.backend.domain.InvoiceLineItem;
+import com.smartinvoice.backend.domain.InvoiceStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+@Repository
+public class InvoiceJdbcRepository {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String INSERT_INVOICE = """
+        INSERT INTO invoices (id, business_id, invoice_number, customer_id, currency,
+                              status, issue_date, due_date, gst, subtotal, tax_total,
+                              discount_total, total_amount, amount_paid)
+        VALUES (?, ?, ?, ?, ?, CAST(? AS invoice_status), ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String INSERT_LINE_ITEM = """
+        INSERT INTO invoice_line_items (id, invoice_id, description, quantity,
+                                        unit_price, tax_percent, discount_percent, line_total)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String INVOICE_COLUMNS = """
+        i.id, i.business_id, i.invoice_number, i.customer_id, i.currency, i.status,
+        i.issue_date, i.due_date, i.gst, i.subtotal, i.tax_total, i.discount_total,
+        i.total_amount, i.amount_paid
+        """;
+
+    private static final String LINE_ITEM_COLUMNS = """
+        li.id AS line_item_id, li.invoice_id, li.description, li.quantity, li.unit_price,
+        li.tax_percent, li.discount_percent, li.line_total
+        """;
+
+    /**
+     * Keyset value of invoices without an issue date, which sort after every
+     * dated invoice.
+     */
+    public static final LocalDate NO_ISSUE_DATE = LocalDate.of(1, 1, 1);
+
+    // Must match the expression of the V12 index exactly
+    private static final String SORT_ISSUE_DATE = "COALESCE(i.issue_date, DATE '0001-01-01')";
+
+    private static final String ORDER_BY = " ORDER BY " + SORT_ISSUE_DATE + " DESC, i.id DESC";
+
+    private static final String MARK_OVERDUE = """
+        UPDATE invoices i
+        SET status = CAST('OVERDUE' AS invoice_status),
+            version = i.version + 1
+        FROM (
+            SELECT id, status
+            FROM invoices
+            WHERE status IN ('SENT', 'PARTIALLY_PAID')
+            AND due_date < ?
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+        ) due
+        WHERE i.id = due.id
+        RETURNING i.id, i.business_id, due.status AS previous_status
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final NamedParameterJdbcTemplate cursorJdbcTemplate;
+
+    public InvoiceJdbcRepository(JdbcTemplate jdbcTemplate) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+
+        JdbcTemplate cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursorTemplate.setFetchSize(STREAM_FETCH_SIZE);
+        this.cursorJdbcTemplate = new NamedParameterJdbcTemplate(cursorTemplate);
+    }
+
+    /**
+     * Inserts fully priced invoices and their line items using JDBC batches.
+     * Ids must already be assigned to every invoice and line item.
+     */
+    public void insertAll(List<Invoice> invoices) {
+
+        jdbcTemplate.batchUpdate(INSERT_INVOICE, invoices, BATCH_SIZE, (ps, invoice) -> {
+            ps.setObject(1, invoice.getId());
+            ps.setObject(2, invoice.getBusinessId());
+            ps.setString(3, invoice.getInvoiceNumber());
+            ps.setObject(4, invoice.getCustomerId());
+            ps.setString(5, invoice.getCurrency());
+            ps.setString(6, invoice.getStatus().name());
+            ps.setObject(7, invoice.getIssueDate());
+            ps.setObject(8, invoice.getDueDate());
+            ps.setObject(9, invoice.getGst());
+            ps.setBigDecimal(10, invoice.getSubtotal());
+            ps.setBigDecimal(11, invoice.getTaxTotal());
+            ps.setBigDecimal(12, invoice.getDiscountTotal());
+            ps.setBigDecimal(13, invoice.getTotalAmount());
+            ps.setBigDecimal(14, invoice.getAmountPaid());
+        });
+
+        List<InvoiceLineItem> lineItems = new ArrayList<>();
+        for (Invoice invoice : invoices) {
+            lineItems.addAll(invoice.getLineItems());
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_LINE_ITEM, lineItems, BATCH_SIZE, (ps, item) -> {
+            ps.setObject(1, item.getId());
+            ps.setObject(2, item.getInvoice().getId());
+            ps.setString(3, item.getDescription());
+            ps.setBigDecimal(4, item.getQuantity());
+            ps.setBigDecimal(5, item.getUnitPrice());
+            ps.setBigDecimal(6, item.getTaxPercent());
+            ps.setBigDecimal(7, item.getDiscountPercent());
+            ps.setBigDecimal(8, item.getLineTotal());
+        });
+    }
+
+    /**
+     * Moves up to {@code limit} SENT or PARTIALLY_PAID invoices that were due
+     * before the given date to OVERDUE in one statement, bumping their version
+     * so stale JPA copies fail their optimistic check. Rows locked by live
+     * payments or by another node are skipped and picked up by a later chunk.
+     */
+    public List<StatusChange> markOverdue(LocalDate dueBefore, int limit) {
+
+        return jdbcTemplate.query(MARK_OVERDUE, (rs, rowNum) -> new StatusChange(
+                rs.getObject("id", UUID.class),
+                rs.getObject("business_id", UUID.class),
+                InvoiceStatus.valueOf(rs.getString("previous_status"))),
+                dueBefore, limit);
+    }
+
+    /**
+     * Returns up to {@code limit} invoices ordered by issue date and id, newest
+     * first and undated last, starting strictly after the given keyset
+     * position when present. Line items are not loaded.
+     */
+    public List<Invoice> findPage(UUID businessId,
+                                  InvoiceFilter filter,
+                                  LocalDate afterIssueDate,
+                                  UUID afterId,
+                                  int limit) {
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(INVOICE_COLUMNS)
+                .append(" FROM invoices i");
+
+        appendWhere(sql, params, businessId, filter);
+
+        if (afterId != null) {
+            sql.append(" AND (").append(SORT_ISSUE_DATE).append(", i.id) < (:afterIssueDate, :afterId)");
+            params.addValue("afterIssueDate", afterIssueDate);
+            params.addValue("afterId", afterId);
+        }
+
+        sql.append(ORDER_BY).append(" LIMIT :limit");
+        params.addValue("limit", limit);
+
+        return namedJdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> mapInvoice(rs));
+    }
+
+    /**
+     * Loads the line items of all given invoices with a single query and
+     * attaches them to their invoices.
+     */
+    public void fetchLineItems(List<Invoice> invoices) {
+
+        if (invoices.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Invoice> byId = new HashMap<>();
+        for (Invoice invoice : invoices) {
+            invoice.setLineItems(new ArrayList<>());
+            byId.put(invoice.getId(), invoice);
+        }
+
+        namedJdbcTemplate.query(
+                "SELECT " + LINE_ITEM_COLUMNS + " FROM invoice_line_items li WHERE li.invoice_id IN (:ids)",
+                new MapSqlParameterSource("ids", byId.keySet()),
+                rs -> {
+                    Invoice invoice = byId.get(rs.getObject("invoice_id", UUID.class));
+                    invoice.getLineItems().add(mapLineItem(rs, invoice));
+                });
+    }
+
+    /**
+     * Streams every matching invoice, in listing order, from a forward-only
+     * cursor. Must run inside a transaction so the driver fetches rows in
+     * batches instead of materialising the whole result set.
+     */
+    public void stream(UUID businessId,
+                       InvoiceFilter filter,
+                       boolean withLineItems,
+                       Consumer<Invoice> consumer) {
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("SELECT ").append(INVOICE_COLUMNS);
+
+        if (withLineItems) {
+            sql.append(", ").append(LINE_ITEM_COLUMNS)
+                    .append(" FROM invoices i LEFT JOIN invoice_line_items li ON li.invoice_id = i.id");
+        } else {
+            sql.append(" FROM invoices i");
+        }
+
+        appendWhere(sql, params, businessId, filter);
+        sql.append(ORDER_BY);
+
+        if (!withLineItems) {
+            cursorJdbcTemplate.query(sql.toString(), params, rs -> {
+                consumer.accept(mapInvoice(rs));
+            });
+            return;
+        }
+
+        Invoice[] current = new Invoice[1];
+
+        cursorJdbcTemplate.query(sql.toString(), params, rs -> {
+
+            UUID invoiceId = rs.getObject("id", UUID.class);
+
+            if (current[0] == null || !current[0].getId().equals(invoiceId)) {
+                if (current[0] != null) {
+                    consumer.accept(current[0]);
+                }
+                current[0] = mapInvoice(rs);
+            }
+
+            if (rs.getObject("line_item_id") != null) {
+                current[0].getLineItems().add(mapLineItem(rs, current[0]));
+            }
+        });
+
+        if (current[0] != null) {
+            consumer.accept(current[0]);
+        }
+    }
+
+    private void appendWhere(StringBuilder sql,
+                             MapSqlParameterSource params,
+                             UUID businessId,
+                             InvoiceFilter filter) {
+
+        sql.append(" WHERE i.business_id = :businessId");
+        params.addValue("businessId", businessId);
+
+        if (filter.status() != null) {
+            sql.append(" AND i.status = CAST(:status AS invoice_status)");
+            params.addValue("status", filter.status().name());
+        }
+
+        if (filter.customerId() != null) {
+            sql.append(" AND i.customer_id = :customerId");
+            params.addValue("customerId", filter.customerId());
+        }
+
+        if (filter.issuedFrom() != null) {
+            sql.append(" AND i.issue_date >= :issuedFrom");
+            params.addValue("issuedFrom", filter.issuedFrom());
+        }
+
+        if (filter.issuedTo() != null) {
+            sql.append(" AND i.issue_date <= :issuedTo");
+            params.addValue("issuedTo", filter.issuedTo());
+        }
+    }
+
+    private Invoice mapInvoice(ResultSet rs) throws SQLException {
+
+        Invoice invoice = new Invoice();
+        invoice.setId(rs.getObject("id", UUID.class));
+        invoice.setBusinessId(rs.getObject("business_id", UUID.class));
+        invoice.setInvoiceNumber(rs.getString("invoice_number"));
+        invoice.setCustomerId(rs.getObject("customer_id", UUID.class));
+        invoice.setCurrency(rs.getString("currency"));
+        invoice.setStatus(InvoiceStatus.valueOf(rs.getString("status")));
+        invoice.setIssueDate(rs.getObject("issue_date", LocalDate.class));
+        invoice.setDueDate(rs.getObject("due_date", LocalDate.class));
+        invoice.setGst(rs.getObject("gst", Integer.class));
+        invoice.setSubtotal(rs.getBigDecimal("subtotal"));
+        invoice.setTaxTotal(rs.getBigDecimal("tax_total"));
+        invoice.setDiscountTotal(rs.getBigDecimal("discount_total"));
+        invoice.setTotalAmount(rs.getBigDecimal("total_amount"));
+        invoice.setAmountPaid(rs.getBigDecimal("amount_paid"));
+        return invoice;
+    }
+
+    private InvoiceLineItem mapLineItem(ResultSet rs, Invoice invoice) throws SQLException {
+
+        InvoiceLineItem item = new InvoiceLineItem();
+        item.setId(rs.getObject("line_item_id", UUID.class));
+        item.setInvoice(invoice);
+        item.setDescription(rs.getString("description"));
+        item.setQuantity(rs.getBigDecimal("quantity"));
+        item.setUnitPrice(rs.getBigDecimal("unit_price"));
+        item.setTaxPercent(rs.getBigDecimal("tax_percent"));
+        item.setDiscountPercent(rs.getBigDecimal("discount_percent"));
+        item.setLineTotal(rs.getBigDecimal("line_total"));
+        return item;
+    }
+
+    public record StatusChange(UUID invoiceId, UUID businessId, InvoiceStatus previousStatus) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.smartinvoice.backend.repository;
+
+import com.smartinvoice.backend.domain.InvoiceLineItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface InvoiceLineItemRepository extends JpaRepository<InvoiceLineItem, UUID> {
+
+    Optional<InvoiceLineItem> findByIdAndInvoiceId(UUID id, UUID invoiceId);
+
+    List<InvoiceLineItem> findByInvoiceIdAndIdIn(UUID invoiceId, Collection<UUID> ids);
+}
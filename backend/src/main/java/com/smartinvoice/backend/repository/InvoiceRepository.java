@@ -2,8 +2,14 @@ package com.smartinvoice.backend.repository;
 
 import com.smartinvoice.backend.domain.Invoice;
 //import org.hibernate.validator.constraints.UUID;
+import org.springframework.data.jpa.repository.EntityGraph;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.Optional;
@@ -17,5 +23,37 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
     Optional<Invoice> findByIdAndBusinessId(UUID id, UUID businessId);
     Optional<Invoice> findByBusinessIdAndId(UUID businessId, UUID id);
     List<Invoice> findByBusinessId(UUID businessId);
-}
 
+    @EntityGraph(attributePaths = "lineItems")
+    Optional<Invoice> findWithLineItemsByBusinessIdAndId(UUID businessId, UUID id);
+
+    @EntityGraph(attributePaths = "lineItems")
+    List<Invoice> findWithLineItemsByBusinessId(UUID businessId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Invoice> findForUpdateByBusinessIdAndId(UUID businessId, UUID id);
+
+    @Query("""
+        SELECT i.invoiceNumber
+        FROM Invoice i
+        WHERE i.businessId = :businessId
+        AND i.invoiceNumber IN :invoiceNumbers
+        """)
+    List<String> findExistingInvoiceNumbers(@Param("businessId") UUID businessId,
+                                            @Param("invoiceNumbers") Collection<String> invoiceNumbers);
+
+    /**
+     * Locks the matching invoices in id order, so concurrent callers locking
+     * overlapping sets cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT i
+        FROM Invoice i
+        WHERE i.businessId = :businessId
+        AND i.invoiceNumber IN :invoiceNumbers
+        ORDER BY i.id
+        """)
+    List<Invoice> lockByInvoiceNumbers(@Param("businessId") UUID businessId,
+                                       @Param("invoiceNumbers") Collection<String> invoiceNumbers);
+}
@@ -1,13 +1,31 @@
 package com.smartinvoice.backend.repository;
 
 import com.smartinvoice.backend.domain.Payment;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface PaymentRepository extends JpaRepository<Payment, UUID> {
 
 
     List<Payment> findByInvoiceIdAndBusinessId(UUID invoiceId, UUID businessId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Payment> findForUpdateByIdAndBusinessId(UUID id, UUID businessId);
+
+    @Query("""
+        SELECT p.paymentReference
+        FROM Payment p
+        WHERE p.businessId = :businessId
+        AND p.paymentReference IN :references
+        """)
+    List<String> findExistingReferences(@Param("businessId") UUID businessId,
+                                        @Param("references") Collection<String> references);
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.smartinvoice.backend.repository;
+
+/**
+ * Orderings of the outstanding and overdue reports. Each is backed by a V11
+ * index, and ties are broken by invoice id so pages are stable.
+ */
+public enum ReceivableSort {
+
+    /** Largest remaining amount first. */
+    REMAINING_AMOUNT("(i.total_amount - i.amount_paid)", true),
+
+    /** Earliest due date first; invoices without a due date come last. */
+    DUE_DATE("COALESCE(i.due_date, DATE '9999-12-31')", false);
+
+    // Must match the expressions of the V11 indexes exactly
+    private final String expression;
+    private final boolean descending;
+
+    ReceivableSort(String expression, boolean descending) {
+        this.expression = expression;
+        this.descending = descending;
+    }
+
+    String getExpression() {
+        return expression;
+    }
+
+    boolean isDescending() {
+        return descending;
+    }
+}
@@ -0,0 +1,129 @@
+package com.smartinvoice.backend.repository;
+
+import com.smartinvoice.backend.dto.OutstandingInvoiceResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Outstanding and overdue invoice reports, read as typed rows in a defined
+ * order: whole, one keyset page at a time, or streamed from a forward-only
+ * cursor.
+ */
+@Repository
+public class ReportJdbcRepository {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    static final String OUTSTANDING_INVOICES = """
+        SELECT i.id, i.invoice_number, c.name AS customer_name, i.due_date,
+               i.total_amount - i.amount_paid AS remaining
+        FROM invoices i
+        JOIN customers c ON i.customer_id = c.id
+        WHERE i.business_id = :businessId
+        AND i.amount_paid < i.total_amount
+        """;
+
+    static final String OVERDUE_INVOICES = """
+        SELECT i.id, i.invoice_number, c.name AS customer_name, i.due_date,
+               i.total_amount - i.amount_paid AS remaining
+        FROM invoices i
+        JOIN customers c ON i.customer_id = c.id
+        WHERE i.business_id = :businessId
+        AND i.status = 'OVERDUE'
+        """;
+
+    private static final RowMapper<OutstandingInvoiceResponse> ROW_MAPPER = (rs, rowNum) ->
+            OutstandingInvoiceResponse.builder()
+                    .invoiceId(rs.getObject("id", UUID.class))
+                    .invoiceNumber(rs.getString("invoice_number"))
+                    .customerName(rs.getString("customer_name"))
+                    .dueDate(rs.getObject("due_date", LocalDate.class))
+                    .remainingAmount(rs.getBigDecimal("remaining"))
+                    .build();
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final NamedParameterJdbcTemplate cursorJdbcTemplate;
+
+    public ReportJdbcRepository(JdbcTemplate jdbcTemplate) {
+
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+
+        JdbcTemplate cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursorTemplate.setFetchSize(STREAM_FETCH_SIZE);
+        this.cursorJdbcTemplate = new NamedParameterJdbcTemplate(cursorTemplate);
+    }
+
+    public List<OutstandingInvoiceResponse> findAll(UUID businessId, boolean overdue, ReceivableSort sort) {
+
+        return namedJdbcTemplate.query(
+                baseQuery(overdue) + orderBy(sort),
+                new MapSqlParameterSource("businessId", businessId),
+                ROW_MAPPER);
+    }
+
+    /**
+     * Returns up to {@code limit} rows in the given order, starting strictly
+     * after the row with the given sort key and id when present. The sort key
+     * is the remaining amount or the due date, matching the sort.
+     */
+    public List<OutstandingInvoiceResponse> findPage(UUID businessId,
+                                                     boolean overdue,
+                                                     ReceivableSort sort,
+                                                     Object afterKey,
+                                                     UUID afterId,
+                                                     int limit) {
+
+        MapSqlParameterSource params = new MapSqlParameterSource("businessId", businessId);
+        StringBuilder sql = new StringBuilder(baseQuery(overdue));
+
+        if (afterId != null) {
+            sql.append(" AND (").append(sort.getExpression()).append(", i.id) ")
+                    .append(sort.isDescending() ? "<" : ">")
+                    .append(" (:afterKey, :afterId)");
+            params.addValue("afterKey", afterKey);
+            params.addValue("afterId", afterId);
+        }
+
+        sql.append(orderBy(sort)).append(" LIMIT :limit");
+        params.addValue("limit", limit);
+
+        return namedJdbcTemplate.query(sql.toString(), params, ROW_MAPPER);
+    }
+
+    /**
+     * Streams every row in the given order from a forward-only cursor. Must
+     * run inside a transaction so the driver fetches rows in batches instead
+     * of materialising the whole result set.
+     */
+    public void stream(UUID businessId,
+                       boolean overdue,
+                       ReceivableSort sort,
+                       Consumer<OutstandingInvoiceResponse> consumer) {
+
+        cursorJdbcTemplate.query(
+                baseQuery(overdue) + orderBy(sort),
+                new MapSqlParameterSource("businessId", businessId),
+                rs -> {
+                    consumer.accept(ROW_MAPPER.mapRow(rs, 0));
+                });
+    }
+
+    static String orderBy(ReceivableSort sort) {
+
+        String direction = sort.isDescending() ? " DESC" : "";
+
+        return " ORDER BY " + sort.getExpression() + direction + ", i.id" + direction;
+    }
+
+    private static String baseQuery(boolean overdue) {
+        return overdue ? OVERDUE_INVOICES : OUTSTANDING_INVOICES;
+    }
+}
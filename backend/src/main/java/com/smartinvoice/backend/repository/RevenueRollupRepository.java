@@ -0,0 +1,233 @@
+package com.smartinvoice.backend.repository;
+
+import com.smartinvoice.backend.dto.MonthlyRevenueResponse;
+import com.smartinvoice.backend.dto.RevenueByCustomerResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Incrementally maintained revenue rollups per business: received payments
+ * per day and amount paid per customer. Every increment takes a shared
+ * per-business advisory lock and {@link #rebuild(UUID)} takes the exclusive
+ * one, so a rebuild never races with payments being recorded.
+ *
+ * Inside a transaction, increments are only collected and are written just
+ * before commit, in key order. Every payment of a business touches the same
+ * daily row, so writing it early would hold that row lock, and block the
+ * business's other payments, for the rest of the transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RevenueRollupRepository {
+
+    private static final String BUSINESS_LOCK_KEY = "hashtextextended(CAST(? AS text), 0)";
+
+    private static final String ADD_DAILY = """
+        WITH business_lock AS (SELECT pg_advisory_xact_lock_shared(%s))
+        INSERT INTO revenue_daily_rollups (business_id, day, amount)
+        SELECT ?, ?, ? FROM business_lock
+        ON CONFLICT (business_id, day)
+        DO UPDATE SET amount = revenue_daily_rollups.amount + EXCLUDED.amount
+        """.formatted(BUSINESS_LOCK_KEY);
+
+    private static final String ADD_CUSTOMER = """
+        WITH business_lock AS (SELECT pg_advisory_xact_lock_shared(%s))
+        INSERT INTO revenue_customer_rollups (business_id, customer_id, amount)
+        SELECT ?, ?, ? FROM business_lock
+        ON CONFLICT (business_id, customer_id)
+        DO UPDATE SET amount = revenue_customer_rollups.amount + EXCLUDED.amount
+        """.formatted(BUSINESS_LOCK_KEY);
+
+    private static final String ENSURE_CUSTOMER = """
+        WITH business_lock AS (SELECT pg_advisory_xact_lock_shared(%s))
+        INSERT INTO revenue_customer_rollups (business_id, customer_id, amount)
+        SELECT ?, ?, 0 FROM business_lock
+        ON CONFLICT (business_id, customer_id) DO NOTHING
+        """.formatted(BUSINESS_LOCK_KEY);
+
+    static final String REVENUE_BETWEEN = """
+        SELECT COALESCE(SUM(amount), 0)
+        FROM revenue_daily_rollups
+        WHERE business_id = ?
+        AND day BETWEEN ? AND ?
+        """;
+
+    private static final String MONTHLY_REVENUE = """
+        SELECT CAST(DATE_TRUNC('month', day) AS date) AS month,
+               SUM(amount) AS revenue
+        FROM revenue_daily_rollups
+        WHERE business_id = ?
+        GROUP BY month
+        ORDER BY month
+        """;
+
+    private static final String REVENUE_BY_CUSTOMER = """
+        SELECT c.id, c.name, r.amount
+        FROM revenue_customer_rollups r
+        JOIN customers c ON r.customer_id = c.id
+        WHERE r.business_id = ?
+        """;
+
+    private static final String REBUILD_DAILY = """
+        INSERT INTO revenue_daily_rollups (business_id, day, amount)
+        SELECT business_id, CAST(created_at AS date), SUM(amount)
+        FROM payments
+        WHERE business_id = ?
+        AND status = 'RECEIVED'
+        GROUP BY business_id, CAST(created_at AS date)
+        """;
+
+    private static final String REBUILD_CUSTOMER = """
+        INSERT INTO revenue_customer_rollups (business_id, customer_id, amount)
+        SELECT business_id, customer_id, COALESCE(SUM(amount_paid), 0)
+        FROM invoices
+        WHERE business_id = ?
+        GROUP BY business_id, customer_id
+        """;
+
+    private final Object pendingKey = new Object();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void addDailyRevenue(UUID businessId, LocalDate day, BigDecimal amount) {
+
+        PendingIncrements pending = pending();
+
+        if (pending == null) {
+            jdbcTemplate.update(ADD_DAILY, businessId, businessId, day, amount);
+        } else {
+            pending.daily.merge(new DailyKey(businessId, day), amount, BigDecimal::add);
+        }
+    }
+
+    public void addCustomerRevenue(UUID businessId, UUID customerId, BigDecimal amount) {
+
+        PendingIncrements pending = pending();
+
+        if (pending == null) {
+            jdbcTemplate.update(ADD_CUSTOMER, businessId, businessId, customerId, amount);
+        } else {
+            pending.customer.merge(new CustomerKey(businessId, customerId), amount, BigDecimal::add);
+        }
+    }
+
+    /**
+     * Registers customers with zero revenue so they are reported as soon as
+     * they have an invoice, as the original aggregate did.
+     */
+    public void ensureCustomers(UUID businessId, Collection<UUID> customerIds) {
+        jdbcTemplate.batchUpdate(ENSURE_CUSTOMER, List.copyOf(customerIds), customerIds.size(),
+                (ps, customerId) -> {
+                    ps.setObject(1, businessId);
+                    ps.setObject(2, businessId);
+                    ps.setObject(3, customerId);
+                });
+    }
+
+    public BigDecimal revenueBetween(UUID businessId, LocalDate start, LocalDate end) {
+        return jdbcTemplate.queryForObject(REVENUE_BETWEEN, BigDecimal.class, businessId, start, end);
+    }
+
+    public List<MonthlyRevenueResponse> monthlyRevenue(UUID businessId) {
+        return jdbcTemplate.query(MONTHLY_REVENUE,
+                (rs, rowNum) -> MonthlyRevenueResponse.builder()
+                        .month(rs.getObject("month", LocalDate.class))
+                        .revenue(rs.getBigDecimal("revenue"))
+                        .build(),
+                businessId);
+    }
+
+    public List<RevenueByCustomerResponse> revenueByCustomer(UUID businessId) {
+        return jdbcTemplate.query(REVENUE_BY_CUSTOMER,
+                (rs, rowNum) -> RevenueByCustomerResponse.builder()
+                        .customerId(rs.getObject(1, UUID.class))
+                        .customerName(rs.getString(2))
+                        .totalRevenue(rs.getBigDecimal(3))
+                        .build(),
+                businessId);
+    }
+
+    /**
+     * Recomputes both rollups of a business from payments and invoices. Must
+     * run inside a transaction.
+     */
+    public void rebuild(UUID businessId) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(" + BUSINESS_LOCK_KEY + ")", businessId);
+        jdbcTemplate.update("DELETE FROM revenue_daily_rollups WHERE business_id = ?", businessId);
+        jdbcTemplate.update("DELETE FROM revenue_customer_rollups WHERE business_id = ?", businessId);
+        jdbcTemplate.update(REBUILD_DAILY, businessId);
+        jdbcTemplate.update(REBUILD_CUSTOMER, businessId);
+    }
+
+    private PendingIncrements pending() {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+
+        PendingIncrements pending = (PendingIncrements) TransactionSynchronizationManager.getResource(pendingKey);
+
+        if (pending == null) {
+            pending = new PendingIncrements();
+            TransactionSynchronizationManager.bindResource(pendingKey, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+
+        return pending;
+    }
+
+    private record DailyKey(UUID businessId, LocalDate day) {
+    }
+
+    private record CustomerKey(UUID businessId, UUID customerId) {
+    }
+
+    private class PendingIncrements implements TransactionSynchronization {
+
+        private final Map<DailyKey, BigDecimal> daily = new TreeMap<>(
+                Comparator.comparing(DailyKey::businessId).thenComparing(DailyKey::day));
+        private final Map<CustomerKey, BigDecimal> customer = new TreeMap<>(
+                Comparator.comparing(CustomerKey::businessId).thenComparing(CustomerKey::customerId));
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+
+            if (!daily.isEmpty()) {
+                List<Map.Entry<DailyKey, BigDecimal>> days = List.copyOf(daily.entrySet());
+                jdbcTemplate.batchUpdate(ADD_DAILY, days, days.size(), (ps, entry) -> {
+                    ps.setObject(1, entry.getKey().businessId());
+                    ps.setObject(2, entry.getKey().businessId());
+                    ps.setObject(3, entry.getKey().day());
+                    ps.setBigDecimal(4, entry.getValue());
+                });
+            }
+
+            if (!customer.isEmpty()) {
+                List<Map.Entry<CustomerKey, BigDecimal>> customers = List.copyOf(customer.entrySet());
+                jdbcTemplate.batchUpdate(ADD_CUSTOMER, customers, customers.size(), (ps, entry) -> {
+                    ps.setObject(1, entry.getKey().businessId());
+                    ps.setObject(2, entry.getKey().businessId());
+                    ps.setObject(3, entry.getKey().customerId());
+                    ps.setBigDecimal(4, entry.getValue());
+                });
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.smartinvoice.backend.service;
+
+public enum AuditMode {
+
+    /** Insert each audit entry inside the caller's transaction. */
+    SYNC,
+
+    /** Queue entries after commit and write them in batches in the background. */
+    ASYNC,
+
+    /** Write entries to audit_outbox at commit; a relay moves them to audit_logs. */
+    OUTBOX
+}
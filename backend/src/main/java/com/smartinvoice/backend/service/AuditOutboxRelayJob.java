@@ -0,0 +1,48 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.repository.AuditLogJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves entries from audit_outbox into audit_logs. The outbox is written at
+ * commit in {@link AuditMode#OUTBOX} mode, and in {@link AuditMode#ASYNC} mode
+ * by {@link AuditWriter} for batches audit_logs did not accept. Several nodes
+ * can relay at once because each batch skips rows another node has locked.
+ */
+@Component
+public class AuditOutboxRelayJob {
+
+    private final AuditLogJdbcRepository auditLogJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditMode mode;
+    private final int batchSize;
+
+    public AuditOutboxRelayJob(AuditLogJdbcRepository auditLogJdbcRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${smartinvoice.audit.mode:ASYNC}") AuditMode mode,
+            @Value("${smartinvoice.audit.batch-size:500}") int batchSize) {
+
+        this.auditLogJdbcRepository = auditLogJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.mode = mode;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${smartinvoice.audit.outbox.relay-interval:PT1S}")
+    public void relay() {
+
+        if (mode == AuditMode.SYNC) {
+            return;
+        }
+
+        Integer moved;
+
+        do {
+            moved = transactionTemplate.execute(status ->
+                    auditLogJdbcRepository.relayOutbox(batchSize));
+        } while (moved != null && moved == batchSize);
+    }
+}
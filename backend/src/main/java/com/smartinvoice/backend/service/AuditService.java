@@ -2,19 +2,41 @@ package com.smartinvoice.backend.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartinvoice.backend.domain.AuditLog;
-import lombok.RequiredArgsConstructor;
+import com.smartinvoice.backend.repository.AuditLogJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.smartinvoice.backend.repository.AuditLogRepository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 public class AuditService {
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogJdbcRepository auditLogJdbcRepository;
+    private final AuditWriter auditWriter;
     private final ObjectMapper objectMapper;
+    private final AuditMode mode;
 
+    public AuditService(AuditLogRepository auditLogRepository,
+            AuditLogJdbcRepository auditLogJdbcRepository,
+            AuditWriter auditWriter,
+            ObjectMapper objectMapper,
+            @Value("${smartinvoice.audit.mode:ASYNC}") AuditMode mode) {
+
+        this.auditLogRepository = auditLogRepository;
+        this.auditLogJdbcRepository = auditLogJdbcRepository;
+        this.auditWriter = auditWriter;
+        this.objectMapper = objectMapper;
+        this.mode = mode;
+    }
+
+    @Metered("smartinvoice.audit.log")
     public void log(UUID businessId,
             String entityType,
             UUID entityId,
@@ -22,8 +44,10 @@ public class AuditService {
             Object oldValue,
             Object newValue) {
 
+        AuditLog log;
+
         try {
-            AuditLog log = new AuditLog();
+            log = new AuditLog();
             log.setBusinessId(businessId);
             log.setEntityType(entityType);
             log.setEntityId(entityId);
@@ -37,10 +61,73 @@ public class AuditService {
                 log.setNewValue(objectMapper.writeValueAsString(newValue));
             }
 
-            auditLogRepository.save(log);
-
         } catch (Exception e) {
             throw new RuntimeException("Failed to write audit log: " + e.getMessage(), e);
         }
+
+        if (mode == AuditMode.SYNC) {
+            auditLogRepository.save(log);
+            return;
+        }
+
+        log.setId(UUID.randomUUID());
+        log.setCreatedAt(LocalDateTime.now());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingLogs().add(log);
+        } else {
+            publish(List.of(log));
+        }
+    }
+
+    private void publish(List<AuditLog> logs) {
+
+        if (mode == AuditMode.OUTBOX) {
+            auditLogJdbcRepository.insertOutbox(logs);
+        } else {
+            auditWriter.enqueue(logs);
+        }
+    }
+
+    /**
+     * Entries logged within a transaction are collected and handed over once:
+     * written to the outbox right before commit, or queued right after it.
+     * Entries of a rolled back transaction are discarded.
+     */
+    @SuppressWarnings("unchecked")
+    private List<AuditLog> pendingLogs() {
+
+        List<AuditLog> pending = (List<AuditLog>) TransactionSynchronizationManager.getResource(this);
+
+        if (pending != null) {
+            return pending;
+        }
+
+        List<AuditLog> logs = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, logs);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (mode == AuditMode.OUTBOX) {
+                    publish(logs);
+                }
+            }
+
+            @Override
+            public void afterCommit() {
+                if (mode == AuditMode.ASYNC) {
+                    publish(logs);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(AuditService.this);
+            }
+        });
+
+        return logs;
     }
-}
\ No newline at end of file
+}
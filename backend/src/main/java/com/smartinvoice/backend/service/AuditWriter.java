@@ -0,0 +1,205 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.domain.AuditLog;
+import com.smartinvoice.backend.repository.AuditLogJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background writer for committed audit entries. Entries go into a bounded
+ * queue and a single worker drains it in JDBC batches. When the queue stays
+ * full for longer than the offer timeout, the caller writes its entries
+ * itself, which throttles producers instead of dropping entries. The queue is
+ * flushed on shutdown, after the web server has stopped accepting requests.
+ *
+ * A batch that still cannot be written to audit_logs after a few attempts is
+ * spilled to audit_outbox, from where {@link AuditOutboxRelayJob} moves it
+ * once audit_logs accepts it again. Spilling is retried with backoff until it
+ * succeeds, which holds up the worker and, through the full queue, the
+ * producers, rather than losing entries.
+ */
+@Slf4j
+@Component
+public class AuditWriter implements SmartLifecycle {
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final AuditLogJdbcRepository auditLogJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<AuditLog> queue;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuditWriter(AuditLogJdbcRepository auditLogJdbcRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${smartinvoice.audit.queue-capacity:10000}") int queueCapacity,
+            @Value("${smartinvoice.audit.batch-size:500}") int batchSize,
+            @Value("${smartinvoice.audit.offer-timeout:PT0.05S}") Duration offerTimeout,
+            @Value("${smartinvoice.audit.spill-backoff:PT0.1S}") Duration initialBackoff,
+            @Value("${smartinvoice.audit.spill-max-backoff:PT30S}") Duration maxBackoff) {
+
+        this.auditLogJdbcRepository = auditLogJdbcRepository;
+        // Overflow writes can run in an afterCommit callback, where the
+        // finished transaction is still bound to the calling thread
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMillis = offerTimeout.toMillis();
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+    }
+
+    public void enqueue(List<AuditLog> logs) {
+
+        List<AuditLog> overflow = new ArrayList<>();
+
+        for (AuditLog log : logs) {
+            if (!running || !offer(log)) {
+                overflow.add(log);
+            }
+        }
+
+        if (!overflow.isEmpty()) {
+            write(overflow);
+        }
+    }
+
+    private boolean offer(AuditLog log) {
+        try {
+            return queue.offer(log, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drain() {
+
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                AuditLog first = queue.poll(200, TimeUnit.MILLISECONDS);
+
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flushRemaining() {
+
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditLog> batch) {
+
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        auditLogJdbcRepository.insertAll(batch));
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Failed to write {} audit entries (attempt {})", batch.size(), attempt, e);
+            }
+        }
+
+        spill(batch);
+    }
+
+    private void spill(List<AuditLog> batch) {
+
+        long backoffMillis = initialBackoffMillis;
+
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        auditLogJdbcRepository.insertOutbox(batch));
+                log.warn("Spilled {} audit entries to the outbox", batch.size());
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to spill {} audit entries to the outbox, retrying in {} ms",
+                        batch.size(), backoffMillis, e);
+            }
+
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // Only reached when the thread is forcibly interrupted; leave a trace of what is lost
+                log.error("Interrupted with {} unwritten audit entries: {}", batch.size(),
+                        batch.stream().map(AuditLog::getId).toList());
+                return;
+            }
+
+            backoffMillis = Math.min(backoffMillis * 2, maxBackoffMillis);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("audit-writer").start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+
+        running = false;
+
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        flushRemaining();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the embedded web server, so requests that
+     * are still completing during shutdown can enqueue their entries.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
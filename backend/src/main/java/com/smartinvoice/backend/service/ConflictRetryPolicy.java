@@ -0,0 +1,57 @@
+package com.smartinvoice.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a unit of work that lost an optimistic or pessimistic locking race.
+ * The action must open its own transaction so every attempt starts from fresh
+ * state. Attempts are bounded and spaced with a jittered linear backoff.
+ */
+@Component
+public class ConflictRetryPolicy {
+
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public ConflictRetryPolicy(
+            @Value("${smartinvoice.conflict-retry.max-attempts:5}") int maxAttempts,
+            @Value("${smartinvoice.conflict-retry.backoff:PT0.02S}") Duration backoff) {
+
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoff.toMillis();
+    }
+
+    public <T> T execute(Supplier<T> action) {
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw new IllegalStateException(
+                            "Invoice was modified concurrently, please retry", e);
+                }
+                pause(attempt);
+            }
+        }
+    }
+
+    private void pause(int attempt) {
+
+        long delay = backoffMillis * attempt
+                + ThreadLocalRandom.current().nextLong(backoffMillis + 1);
+
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying", e);
+        }
+    }
+}
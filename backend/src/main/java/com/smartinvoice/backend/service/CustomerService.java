@@ -3,12 +3,15 @@ package com.smartinvoice.backend.service;
 import com.smartinvoice.backend.domain.Customer;
 import com.smartinvoice.backend.dto.CreateCustomerRequest;
 import com.smartinvoice.backend.dto.CustomerResponse;
+import com.smartinvoice.backend.dto.PageResponse;
 import com.smartinvoice.backend.dto.UpdateCustomerRequest;
 import lombok.RequiredArgsConstructor;
 import com.smartinvoice.backend.mapper.CustomerMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.smartinvoice.backend.repository.CustomerJdbcRepository;
 import com.smartinvoice.backend.repository.CustomerRepository;
+import com.smartinvoice.backend.repository.KeysetCursor;
 import com.smartinvoice.backend.tenant.BusinessContext;
 
 import java.util.List;
@@ -18,20 +21,17 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class CustomerService {
 
-    private final CustomerRepository customerRepository;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_QUERY_LENGTH = 100;
 
-    private UUID getBusinessId() {
-        String businessIdStr = BusinessContext.getBusinessId();
-        if (businessIdStr == null) {
-            throw new IllegalStateException("Missing X-Business-ID header");
-        }
-        return UUID.fromString(businessIdStr);
-    }
+    private final CustomerRepository customerRepository;
+    private final CustomerJdbcRepository customerJdbcRepository;
 
     @Transactional
     public CustomerResponse create(CreateCustomerRequest request) {
 
-        UUID businessId = getBusinessId();
+        UUID businessId = BusinessContext.getBusinessId();
 
         Customer customer = new Customer();
         customer.setBusinessId(businessId);
@@ -46,7 +46,7 @@ public class CustomerService {
 
     public List<CustomerResponse> list() {
 
-        UUID businessId = getBusinessId();
+        UUID businessId = BusinessContext.getBusinessId();
 
         return customerRepository
                 .findAllByBusinessId(businessId)
@@ -55,9 +55,54 @@ public class CustomerService {
                 .toList();
     }
 
+    /**
+     * Returns one page of customers ordered by name, optionally filtered by a
+     * search query. See {@link CustomerJdbcRepository#findPage}.
+     */
+    public PageResponse<CustomerResponse> search(String query, String cursor, Integer limit) {
+
+        UUID businessId = BusinessContext.getBusinessId();
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        String normalizedQuery = query == null || query.isBlank() ? null : query.strip();
+        if (normalizedQuery != null && normalizedQuery.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("q must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+
+        String afterName = null;
+        UUID afterId = null;
+
+        if (cursor != null) {
+            // The id goes first, the name may contain the separator
+            String[] parts = KeysetCursor.decode(cursor, 2);
+            afterId = UUID.fromString(parts[0]);
+            afterName = parts[1];
+        }
+
+        List<Customer> customers = customerJdbcRepository.findPage(
+                businessId, normalizedQuery, afterName, afterId, pageSize + 1);
+
+        String nextCursor = null;
+
+        if (customers.size() > pageSize) {
+            customers = customers.subList(0, pageSize);
+            Customer last = customers.get(pageSize - 1);
+            nextCursor = KeysetCursor.encode(last.getId(), last.getName());
+        }
+
+        return PageResponse.<CustomerResponse>builder()
+                .items(customers.stream().map(CustomerMapper::toResponse).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     public CustomerResponse get(UUID id) {
 
-        UUID businessId = getBusinessId();
+        UUID businessId = BusinessContext.getBusinessId();
 
         Customer customer = customerRepository
                 .findByBusinessIdAndId(businessId, id)
@@ -69,7 +114,7 @@ public class CustomerService {
     @Transactional
     public CustomerResponse update(UUID id, UpdateCustomerRequest request) {
 
-        UUID businessId = getBusinessId();
+        UUID businessId = BusinessContext.getBusinessId();
 
         Customer customer = customerRepository
                 .findByBusinessIdAndId(businessId, id)
@@ -85,7 +130,7 @@ public class CustomerService {
     @Transactional
     public void delete(UUID id) {
 
-        UUID businessId = getBusinessId();
+        UUID businessId = BusinessContext.getBusinessId();
 
         Customer customer = customerRepository
                 .findByBusinessIdAndId(businessId, id)
@@ -0,0 +1,68 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.domain.Business;
+import com.smartinvoice.backend.repository.BusinessRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Exports tenant data to files when the application is started with
+ * {@code --export}. Every business is exported unless
+ * {@code --export.business-id} names one; each gets its own directory under
+ * {@code --export.dir} (default "exports"). {@code --export.format} is
+ * "ndjson" (default) or "csv". The application exits once the export is
+ * written instead of going on to serve requests.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExportCommandRunner implements ApplicationRunner {
+
+    private static final String OPTION = "export";
+
+    private final BusinessRepository businessRepository;
+    private final ExportService exportService;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+
+        Path directory = Path.of(option(args, "export.dir", "exports"));
+        ExportFormat format = ExportFormat.valueOf(option(args, "export.format", "ndjson").toUpperCase(Locale.ROOT));
+        String businessId = option(args, "export.business-id", null);
+
+        List<UUID> businessIds = businessId != null
+                ? List.of(UUID.fromString(businessId))
+                : businessRepository.findAll().stream().map(Business::getId).toList();
+
+        for (UUID id : businessIds) {
+            Path target = directory.resolve(id.toString());
+            exportService.exportAll(id, format, target);
+            log.info("Exported business {} to {}", id, target);
+        }
+
+        System.exit(SpringApplication.exit(applicationContext));
+    }
+
+    private static String option(ApplicationArguments args, String name, String defaultValue) {
+
+        List<String> values = args.getOptionValues(name);
+
+        return values == null || values.isEmpty() ? defaultValue : values.get(0);
+    }
+}
@@ -0,0 +1,213 @@
+package com.smartinvoice.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartinvoice.backend.repository.ExportDataset;
+import com.smartinvoice.backend.repository.ExportJdbcRepository;
+import com.smartinvoice.backend.repository.ExportJdbcRepository.RowSink;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports a tenant's invoices, line items, payments and refunds as gzipped
+ * CSV or NDJSON. Each dataset is one query whose rows are written as they
+ * are read from the database cursor, so memory use does not depend on the
+ * size of the tenant.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExportJdbcRepository exportJdbcRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Writes one dataset to the stream. The business id is passed explicitly
+     * because streaming runs outside the request thread.
+     */
+    @Transactional(readOnly = true)
+    public void export(UUID businessId,
+            ExportDataset dataset,
+            ExportFormat format,
+            OutputStream out) throws IOException {
+
+        GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+        write(businessId, dataset, format, gzip);
+        gzip.finish();
+    }
+
+    /**
+     * Writes every dataset to {@code <directory>/<dataset>.<format>.gz}. All
+     * datasets are read from one repeatable-read snapshot, so they are
+     * consistent with each other. Each file is written under a temporary name
+     * and moved into place once complete.
+     */
+    public void exportAll(UUID businessId, ExportFormat format, Path directory) throws IOException {
+
+        Files.createDirectories(directory);
+
+        TransactionTemplate snapshot = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.setReadOnly(true);
+
+        snapshot.executeWithoutResult(status -> {
+            for (ExportDataset dataset : ExportDataset.values()) {
+                try {
+                    exportToFile(businessId, dataset, format,
+                            directory.resolve(dataset.getFileName() + "." + format.getExtension() + ".gz"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+
+    private void exportToFile(UUID businessId,
+            ExportDataset dataset,
+            ExportFormat format,
+            Path file) throws IOException {
+
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+
+        try (FileChannel channel = FileChannel.open(partial,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)) {
+
+            write(businessId, dataset, format, gzip);
+        }
+
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void write(UUID businessId,
+            ExportDataset dataset,
+            ExportFormat format,
+            OutputStream out) throws IOException {
+
+        try {
+            if (format == ExportFormat.CSV) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+                exportJdbcRepository.stream(dataset, businessId, new CsvSink(writer));
+                writer.flush();
+            } else {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.setRootValueSeparator(null);
+                    exportJdbcRepository.stream(dataset, businessId, new NdjsonSink(generator));
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class CsvSink implements RowSink {
+
+        private final Writer writer;
+
+        CsvSink(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void columns(String[] columns) {
+            writeLine(columns);
+        }
+
+        @Override
+        public void row(Object[] values) {
+            writeLine(values);
+        }
+
+        private void writeLine(Object[] values) {
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(escape(values[i]));
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String escape(Object value) {
+
+            if (value == null) {
+                return "";
+            }
+
+            String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0
+                    && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static final class NdjsonSink implements RowSink {
+
+        private final JsonGenerator generator;
+        private String[] columns;
+
+        NdjsonSink(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void columns(String[] columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public void row(Object[] values) {
+            try {
+                generator.writeStartObject();
+
+                for (int i = 0; i < values.length; i++) {
+                    generator.writeFieldName(columns[i]);
+
+                    Object value = values[i];
+
+                    if (value == null) {
+                        generator.writeNull();
+                    } else if (value instanceof BigDecimal decimal) {
+                        generator.writeNumber(decimal);
+                    } else if (value instanceof Number number) {
+                        generator.writeNumber(number.longValue());
+                    } else {
+                        generator.writeString(value.toString());
+                    }
+                }
+
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
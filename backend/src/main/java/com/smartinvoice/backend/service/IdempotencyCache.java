@@ -0,0 +1,65 @@
+package com.smartinvoice.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartinvoice.backend.dto.InvoiceResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Bounded, TTL-based cache of already deserialized responses for idempotent
+ * payment requests, keyed by business and idempotency key. It sits in front
+ * of the idempotency_keys table so gateway retries skip both the database
+ * round trip and the JSON parse.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final Cache<Key, InvoiceResponse> cache;
+
+    public IdempotencyCache(
+            @Value("${smartinvoice.idempotency.cache.max-size:100000}") long maxSize,
+            @Value("${smartinvoice.idempotency.cache.ttl:PT1H}") Duration ttl) {
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<InvoiceResponse> get(UUID businessId, String idempotencyKey) {
+        return Optional.ofNullable(cache.getIfPresent(new Key(businessId, idempotencyKey)));
+    }
+
+    public void put(UUID businessId, String idempotencyKey, InvoiceResponse response) {
+        cache.put(new Key(businessId, idempotencyKey), response);
+    }
+
+    /**
+     * Caches the response only once the surrounding transaction commits, so a
+     * rolled back payment never becomes visible to retries.
+     */
+    public void putAfterCommit(UUID businessId, String idempotencyKey, InvoiceResponse response) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(businessId, idempotencyKey, response);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(businessId, idempotencyKey, response);
+            }
+        });
+    }
+
+    private record Key(UUID businessId, String idempotencyKey) {
+    }
+}
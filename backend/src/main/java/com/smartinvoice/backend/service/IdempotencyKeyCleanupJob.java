@@ -0,0 +1,51 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.repository.IdempotencyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Periodically deletes idempotency records older than the retention period so
+ * the table and its unique index stay bounded. Rows are removed in small
+ * batches, each in its own transaction, to keep lock times short.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeyCleanupJob {
+
+    private final IdempotencyRepository idempotencyRepository;
+    private final Duration retention;
+    private final int batchSize;
+
+    public IdempotencyKeyCleanupJob(IdempotencyRepository idempotencyRepository,
+            @Value("${smartinvoice.idempotency.retention:P1D}") Duration retention,
+            @Value("${smartinvoice.idempotency.cleanup-batch-size:5000}") int batchSize) {
+
+        this.idempotencyRepository = idempotencyRepository;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${smartinvoice.idempotency.cleanup-interval:PT15M}")
+    public void deleteExpiredKeys() {
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+
+        int total = 0;
+        int deleted;
+
+        do {
+            deleted = idempotencyRepository.deleteCreatedBefore(cutoff, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.info("Deleted {} idempotency keys created before {}", total, cutoff);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.smartinvoice.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartinvoice.backend.domain.Invoice;
+import com.smartinvoice.backend.domain.InvoiceLineItem;
+import com.smartinvoice.backend.dto.BulkInvoiceItemResult;
+import com.smartinvoice.backend.dto.BulkInvoiceResponse;
+import com.smartinvoice.backend.dto.CreateInvoiceRequest;
+import com.smartinvoice.backend.repository.CustomerRepository;
+import com.smartinvoice.backend.repository.InvoiceJdbcRepository;
+import com.smartinvoice.backend.repository.InvoiceRepository;
+import com.smartinvoice.backend.repository.RevenueRollupRepository;
+import com.smartinvoice.backend.tenant.BusinessContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Creates invoices in bulk. Requests are validated and priced in chunks, and
+ * each chunk is written with JDBC batch inserts in its own transaction. Rows
+ * that fail validation are reported individually and never reach the
+ * database; if a chunk insert still fails, its rows are retried one by one so
+ * a single bad row cannot roll back the rest of the chunk.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InvoiceBulkService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final InvoiceRepository invoiceRepository;
+    private final CustomerRepository customerRepository;
+    private final InvoiceJdbcRepository invoiceJdbcRepository;
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BulkInvoiceResponse createInvoices(List<CreateInvoiceRequest> requests) {
+
+        BulkImport bulkImport = new BulkImport(BusinessContext.getBusinessId());
+
+        for (CreateInvoiceRequest request : requests) {
+            bulkImport.add(request);
+        }
+
+        return bulkImport.finish();
+    }
+
+    public BulkInvoiceResponse importNdjson(BufferedReader reader) throws IOException {
+
+        BulkImport bulkImport = new BulkImport(BusinessContext.getBusinessId());
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                bulkImport.add(objectMapper.readValue(line, CreateInvoiceRequest.class));
+            } catch (JsonProcessingException e) {
+                bulkImport.reject(null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        return bulkImport.finish();
+    }
+
+    private String validate(CreateInvoiceRequest request) {
+
+        if (request == null) {
+            return "Invoice must not be empty";
+        }
+
+        Set<ConstraintViolation<CreateInvoiceRequest>> violations = validator.validate(request);
+
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private record PendingItem(int index, CreateInvoiceRequest request) {
+    }
+
+    private class BulkImport {
+
+        private final UUID businessId;
+        private final Set<String> seenInvoiceNumbers = new HashSet<>();
+        private final List<BulkInvoiceItemResult> results = new ArrayList<>();
+        private final List<PendingItem> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        private int nextIndex;
+        private int created;
+
+        BulkImport(UUID businessId) {
+            this.businessId = businessId;
+        }
+
+        void add(CreateInvoiceRequest request) {
+
+            chunk.add(new PendingItem(nextIndex++, request));
+
+            if (chunk.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(String invoiceNumber, String error) {
+
+            flush();
+            results.add(BulkInvoiceItemResult.builder()
+                    .index(nextIndex++)
+                    .invoiceNumber(invoiceNumber)
+                    .error(error)
+                    .build());
+        }
+
+        BulkInvoiceResponse finish() {
+
+            flush();
+
+            return BulkInvoiceResponse.builder()
+                    .total(results.size())
+                    .created(created)
+                    .failed(results.size() - created)
+                    .results(results)
+                    .build();
+        }
+
+        private void flush() {
+
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            Map<Integer, String> errors = new HashMap<>();
+            List<PendingItem> valid = new ArrayList<>();
+
+            for (PendingItem item : chunk) {
+
+                String error = validate(item.request());
+
+                if (error != null) {
+                    errors.put(item.index(), error);
+                } else {
+                    valid.add(item);
+                }
+            }
+
+            Set<String> existingNumbers = valid.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(invoiceRepository.findExistingInvoiceNumbers(
+                            businessId,
+                            valid.stream().map(i -> i.request().getInvoiceNumber()).toList()));
+
+            Set<UUID> knownCustomers = valid.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(customerRepository.findExistingIds(
+                            businessId,
+                            valid.stream().map(i -> i.request().getCustomerId()).collect(Collectors.toSet())));
+
+            Map<Integer, Invoice> invoices = new LinkedHashMap<>();
+
+            for (PendingItem item : valid) {
+
+                String invoiceNumber = item.request().getInvoiceNumber();
+
+                if (seenInvoiceNumbers.contains(invoiceNumber)) {
+                    errors.put(item.index(), "Duplicate invoice number in import");
+                } else if (existingNumbers.contains(invoiceNumber)) {
+                    errors.put(item.index(), "Invoice number already exists");
+                } else if (!knownCustomers.contains(item.request().getCustomerId())) {
+                    errors.put(item.index(), "Customer not found");
+                } else {
+                    // Only rows that pass every check claim their number
+                    seenInvoiceNumbers.add(invoiceNumber);
+                    invoices.put(item.index(), priceInvoice(item.request()));
+                }
+            }
+
+            persist(invoices, errors);
+
+            // Rows the database rejected free their number for later rows
+            invoices.forEach((index, invoice) -> {
+                if (errors.containsKey(index)) {
+                    seenInvoiceNumbers.remove(invoice.getInvoiceNumber());
+                }
+            });
+
+            for (PendingItem item : chunk) {
+
+                Invoice invoice = invoices.get(item.index());
+                String error = errors.get(item.index());
+
+                if (error == null) {
+                    created++;
+                }
+
+                results.add(BulkInvoiceItemResult.builder()
+                        .index(item.index())
+                        .invoiceNumber(item.request() == null ? null : item.request().getInvoiceNumber())
+                        .invoiceId(error == null ? invoice.getId() : null)
+                        .error(error)
+                        .build());
+            }
+
+            chunk.clear();
+        }
+
+        private Invoice priceInvoice(CreateInvoiceRequest request) {
+
+            Invoice invoice = InvoiceService.buildInvoice(businessId, request);
+            invoice.setId(UUID.randomUUID());
+
+            for (InvoiceLineItem lineItem : invoice.getLineItems()) {
+                lineItem.setId(UUID.randomUUID());
+            }
+
+            return invoice;
+        }
+
+        private void persist(Map<Integer, Invoice> invoices, Map<Integer, String> errors) {
+
+            if (invoices.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        insert(List.copyOf(invoices.values())));
+                return;
+            } catch (DataAccessException e) {
+                // Fall through and isolate the offending rows
+            }
+
+            invoices.forEach((index, invoice) -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            insert(List.of(invoice)));
+                } catch (DataAccessException e) {
+                    errors.put(index, rowError(e));
+                }
+            });
+        }
+
+        // Database messages name constraints and echo values; clients get a stable message instead
+        private String rowError(DataAccessException e) {
+
+            if (e instanceof DuplicateKeyException) {
+                return "Invoice number already exists";
+            }
+
+            log.warn("Bulk invoice row for business {} was not saved", businessId, e);
+
+            return e instanceof DataIntegrityViolationException
+                    ? "Invoice contains invalid values"
+                    : "Invoice could not be saved";
+        }
+
+        private void insert(List<Invoice> invoices) {
+
+            invoiceJdbcRepository.insertAll(invoices);
+
+            revenueRollupRepository.ensureCustomers(
+                    businessId,
+                    invoices.stream().map(Invoice::getCustomerId).collect(Collectors.toSet()));
+
+            eventPublisher.publishEvent(new InvoiceChangedEvent(businessId));
+        }
+    }
+}
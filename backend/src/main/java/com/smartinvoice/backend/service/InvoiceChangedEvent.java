@@ -0,0 +1,10 @@
+package com.smartinvoice.backend.service;
+
+import java.util.UUID;
+
+/**
+ * Published whenever invoices, payments or refunds of a business change in a
+ * way that can affect its reports.
+ */
+public record InvoiceChangedEvent(UUID businessId) {
+}
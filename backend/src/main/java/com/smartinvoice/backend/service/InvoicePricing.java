@@ -0,0 +1,281 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.domain.Invoice;
+import com.smartinvoice.backend.domain.InvoiceLineItem;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.List;
+import java.util.function.BinaryOperator;
+
+/**
+ * Prices invoice line items and totals.
+ *
+ * Every line is priced as base = quantity x unit price, with tax and discount
+ * taken as percentages of the unrounded base. Base, tax and discount are then
+ * rounded half-up to the minor unit of the invoice currency, and the line
+ * total and invoice totals are sums of those rounded amounts, so totals
+ * always reconcile with their lines.
+ *
+ * Amounts are computed as scaled longs. Inputs with more precision than the
+ * database stores, or values large enough to overflow, are priced with
+ * {@link BigDecimal} instead; both paths produce identical results.
+ */
+public final class InvoicePricing {
+
+    private static final int AMOUNT_SCALE = 4;
+    private static final int PERCENT_SCALE = 2;
+    private static final int BASE_SCALE = AMOUNT_SCALE * 2;
+    private static final int PERCENTAGE_SCALE = BASE_SCALE + PERCENT_SCALE + 2;
+    private static final int DEFAULT_CURRENCY_SCALE = 2;
+
+    private static final long[] POWERS_OF_TEN = new long[PERCENTAGE_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private InvoicePricing() {
+    }
+
+    /**
+     * Prices every line item of the invoice and sets its line total, then
+     * sets the invoice subtotal, tax, discount and total amounts.
+     */
+    public static void applyTotals(Invoice invoice) {
+
+        int scale = currencyScale(invoice.getCurrency());
+        List<InvoiceLineItem> items = invoice.getLineItems();
+
+        long[] totals = new long[3];
+        long[] lineTotals = new long[items.size()];
+
+        try {
+            priceScaled(items, scale, lineTotals, totals);
+        } catch (ArithmeticException e) {
+            priceExact(invoice, scale);
+            return;
+        }
+
+        for (int i = 0; i < lineTotals.length; i++) {
+            items.get(i).setLineTotal(BigDecimal.valueOf(lineTotals[i], scale));
+        }
+
+        invoice.setSubtotal(BigDecimal.valueOf(totals[0], scale));
+        invoice.setTaxTotal(BigDecimal.valueOf(totals[1], scale));
+        invoice.setDiscountTotal(BigDecimal.valueOf(totals[2], scale));
+        invoice.setTotalAmount(BigDecimal.valueOf(
+                Math.subtractExact(Math.addExact(totals[0], totals[1]), totals[2]), scale));
+    }
+
+    /**
+     * Prices a single line item, sets its line total and adds it to the
+     * invoice totals without touching the other lines.
+     */
+    public static void addLine(Invoice invoice, InvoiceLineItem item) {
+
+        LinePrice price = priceLine(item, currencyScale(invoice.getCurrency()));
+        item.setLineTotal(price.total());
+
+        applyDelta(invoice, price, BigDecimal::add);
+    }
+
+    /**
+     * Subtracts a line item, as currently priced, from the invoice totals.
+     * Together with {@link #addLine} this keeps the totals equal to what
+     * {@link #applyTotals} would compute for the whole invoice.
+     */
+    public static void removeLine(Invoice invoice, InvoiceLineItem item) {
+
+        LinePrice price = priceLine(item, currencyScale(invoice.getCurrency()));
+
+        applyDelta(invoice, price, BigDecimal::subtract);
+    }
+
+    /**
+     * Number of decimal places amounts in the given currency are rounded to.
+     * Unknown currencies use two.
+     */
+    public static int currencyScale(String currency) {
+
+        if (currency == null) {
+            return DEFAULT_CURRENCY_SCALE;
+        }
+
+        try {
+            int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+            return digits < 0 ? DEFAULT_CURRENCY_SCALE : Math.min(digits, AMOUNT_SCALE);
+        } catch (IllegalArgumentException e) {
+            return DEFAULT_CURRENCY_SCALE;
+        }
+    }
+
+    static LinePrice priceLine(InvoiceLineItem item, int scale) {
+
+        long[] line = new long[3];
+
+        try {
+            priceScaledLine(item,
+                    POWERS_OF_TEN[BASE_SCALE - scale],
+                    POWERS_OF_TEN[PERCENTAGE_SCALE - scale],
+                    line);
+        } catch (ArithmeticException e) {
+            return priceExactLine(item, scale);
+        }
+
+        return new LinePrice(
+                BigDecimal.valueOf(line[0], scale),
+                BigDecimal.valueOf(line[1], scale),
+                BigDecimal.valueOf(line[2], scale));
+    }
+
+    private static void applyDelta(Invoice invoice,
+                                   LinePrice price,
+                                   BinaryOperator<BigDecimal> operation) {
+
+        BigDecimal subtotal = operation.apply(zeroIfNull(invoice.getSubtotal()), price.base());
+        BigDecimal taxTotal = operation.apply(zeroIfNull(invoice.getTaxTotal()), price.tax());
+        BigDecimal discountTotal = operation.apply(zeroIfNull(invoice.getDiscountTotal()), price.discount());
+
+        invoice.setSubtotal(subtotal);
+        invoice.setTaxTotal(taxTotal);
+        invoice.setDiscountTotal(discountTotal);
+        invoice.setTotalAmount(subtotal.add(taxTotal).subtract(discountTotal));
+    }
+
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+
+    private static void priceScaled(List<InvoiceLineItem> items,
+                                    int scale,
+                                    long[] lineTotals,
+                                    long[] totals) {
+
+        long baseDivisor = POWERS_OF_TEN[BASE_SCALE - scale];
+        long percentageDivisor = POWERS_OF_TEN[PERCENTAGE_SCALE - scale];
+
+        long subtotal = 0;
+        long taxTotal = 0;
+        long discountTotal = 0;
+
+        long[] line = new long[3];
+
+        for (int i = 0; i < lineTotals.length; i++) {
+
+            priceScaledLine(items.get(i), baseDivisor, percentageDivisor, line);
+
+            lineTotals[i] = Math.subtractExact(Math.addExact(line[0], line[1]), line[2]);
+
+            subtotal = Math.addExact(subtotal, line[0]);
+            taxTotal = Math.addExact(taxTotal, line[1]);
+            discountTotal = Math.addExact(discountTotal, line[2]);
+        }
+
+        totals[0] = subtotal;
+        totals[1] = taxTotal;
+        totals[2] = discountTotal;
+    }
+
+    private static void priceScaledLine(InvoiceLineItem item,
+                                        long baseDivisor,
+                                        long percentageDivisor,
+                                        long[] line) {
+
+        long base = Math.multiplyExact(
+                toScaled(item.getQuantity(), AMOUNT_SCALE),
+                toScaled(item.getUnitPrice(), AMOUNT_SCALE));
+
+        line[0] = divideHalfUp(base, baseDivisor);
+        line[1] = divideHalfUp(
+                Math.multiplyExact(base, toScaled(item.getTaxPercent(), PERCENT_SCALE)),
+                percentageDivisor);
+        line[2] = divideHalfUp(
+                Math.multiplyExact(base, toScaled(item.getDiscountPercent(), PERCENT_SCALE)),
+                percentageDivisor);
+    }
+
+    static void priceExact(Invoice invoice, int scale) {
+
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal taxTotal = BigDecimal.ZERO;
+        BigDecimal discountTotal = BigDecimal.ZERO;
+
+        for (InvoiceLineItem item : invoice.getLineItems()) {
+
+            LinePrice price = priceExactLine(item, scale);
+
+            item.setLineTotal(price.total());
+
+            subtotal = subtotal.add(price.base());
+            taxTotal = taxTotal.add(price.tax());
+            discountTotal = discountTotal.add(price.discount());
+        }
+
+        invoice.setSubtotal(subtotal.setScale(scale));
+        invoice.setTaxTotal(taxTotal.setScale(scale));
+        invoice.setDiscountTotal(discountTotal.setScale(scale));
+        invoice.setTotalAmount(subtotal.add(taxTotal).subtract(discountTotal).setScale(scale));
+    }
+
+    private static LinePrice priceExactLine(InvoiceLineItem item, int scale) {
+
+        BigDecimal base = item.getQuantity().multiply(item.getUnitPrice());
+
+        return new LinePrice(
+                base.setScale(scale, RoundingMode.HALF_UP),
+                percentOf(base, item.getTaxPercent(), scale),
+                percentOf(base, item.getDiscountPercent(), scale));
+    }
+
+    private static BigDecimal percentOf(BigDecimal base, BigDecimal percent, int scale) {
+
+        if (percent == null) {
+            return BigDecimal.ZERO.setScale(scale);
+        }
+
+        return base.multiply(percent)
+                .movePointLeft(2)
+                .setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    private static long toScaled(BigDecimal value, int scale) {
+
+        if (value == null) {
+            return 0;
+        }
+
+        if (value.scale() == 0) {
+            return Math.multiplyExact(value.longValueExact(), POWERS_OF_TEN[scale]);
+        }
+
+        if (value.scale() > scale) {
+            throw new ArithmeticException("Scale exceeds " + scale);
+        }
+
+        return value.movePointRight(scale).longValueExact();
+    }
+
+    record LinePrice(BigDecimal base, BigDecimal tax, BigDecimal discount) {
+
+        BigDecimal total() {
+            return base.add(tax).subtract(discount);
+        }
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+
+        return quotient;
+    }
+}
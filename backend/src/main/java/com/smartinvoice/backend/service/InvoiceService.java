@@ -6,38 +6,75 @@ import com.smartinvoice.backend.dto.*;
 import com.smartinvoice.backend.mapper.InvoiceMapper;
 import com.smartinvoice.backend.mapper.PaymentMapper;
 import com.smartinvoice.backend.repository.IdempotencyRepository;
+import com.smartinvoice.backend.repository.InvoiceFilter;
+import com.smartinvoice.backend.repository.InvoiceJdbcRepository;
+import com.smartinvoice.backend.repository.InvoiceLineItemRepository;
 import com.smartinvoice.backend.repository.InvoiceRepository;
+import com.smartinvoice.backend.repository.KeysetCursor;
 import com.smartinvoice.backend.repository.PaymentRepository;
 import com.smartinvoice.backend.repository.RefundRepository;
+import com.smartinvoice.backend.repository.RevenueRollupRepository;
 import com.smartinvoice.backend.tenant.BusinessContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
-
-import static com.smartinvoice.backend.tenant.BusinessContext.getBusinessId;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class InvoiceService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_LINE_ITEM_OPERATIONS = 1000;
+
     private final InvoiceRepository invoiceRepository;
+    private final InvoiceJdbcRepository invoiceJdbcRepository;
+    private final InvoiceLineItemRepository invoiceLineItemRepository;
     private final PaymentRepository paymentRepository;
     private final RefundRepository refundRepository;
+    private final RevenueRollupRepository revenueRollupRepository;
 
     private final IdempotencyRepository idempotencyRepository;
+    private final IdempotencyCache idempotencyCache;
+    private final ServiceMetrics serviceMetrics;
     private final ObjectMapper objectMapper;
     private final AuditService auditService;
+    private final ConflictRetryPolicy conflictRetryPolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
 
     @Transactional
+    @Metered("smartinvoice.invoice.operations")
     public InvoiceResponse createInvoice(CreateInvoiceRequest request) {
 
-        UUID businessId = UUID.fromString(getBusinessId());
+        UUID businessId = BusinessContext.getBusinessId();
+
+        Invoice saved = invoiceRepository.save(buildInvoice(businessId, request));
+
+        revenueRollupRepository.ensureCustomers(businessId, List.of(saved.getCustomerId()));
+
+        eventPublisher.publishEvent(new InvoiceChangedEvent(businessId));
+
+        return InvoiceMapper.toResponse(saved);
+    }
+
+    static Invoice buildInvoice(UUID businessId, CreateInvoiceRequest request) {
 
         Invoice invoice = new Invoice();
         invoice.setBusinessId(businessId);
@@ -53,58 +90,27 @@ public class InvoiceService {
             invoice.setLineItems(new ArrayList<>());
         }
 
-        BigDecimal subtotal = BigDecimal.ZERO;
-        BigDecimal taxTotal = BigDecimal.ZERO;
-        BigDecimal discountTotal = BigDecimal.ZERO;
-
         for (CreateInvoiceRequest.LineItemRequest itemRequest : request.getLineItems()) {
 
-            BigDecimal quantity = itemRequest.getQuantity();
-            BigDecimal unitPrice = itemRequest.getUnitPrice();
-
-            BigDecimal base = quantity.multiply(unitPrice);
-
-            BigDecimal taxPercent = defaultIfNull(itemRequest.getTaxPercent());
-            BigDecimal discountPercent = defaultIfNull(itemRequest.getDiscountPercent());
-
-            BigDecimal tax = base.multiply(taxPercent)
-                    .divide(BigDecimal.valueOf(100));
-
-            BigDecimal discount = base.multiply(discountPercent)
-                    .divide(BigDecimal.valueOf(100));
-
-            BigDecimal lineTotal = base.add(tax).subtract(discount);
-
-            subtotal = subtotal.add(base);
-            taxTotal = taxTotal.add(tax);
-            discountTotal = discountTotal.add(discount);
-
             InvoiceLineItem lineItem = new InvoiceLineItem();
             lineItem.setInvoice(invoice);
             lineItem.setDescription(itemRequest.getDescription());
-            lineItem.setQuantity(quantity);
-            lineItem.setUnitPrice(unitPrice);
-            lineItem.setTaxPercent(taxPercent);
-            lineItem.setDiscountPercent(discountPercent);
-            lineItem.setLineTotal(lineTotal);
+            lineItem.setQuantity(itemRequest.getQuantity());
+            lineItem.setUnitPrice(itemRequest.getUnitPrice());
+            lineItem.setTaxPercent(defaultIfNull(itemRequest.getTaxPercent()));
+            lineItem.setDiscountPercent(defaultIfNull(itemRequest.getDiscountPercent()));
 
             invoice.getLineItems().add(lineItem);
         }
 
-        BigDecimal totalAmount = subtotal.add(taxTotal).subtract(discountTotal);
-
-        invoice.setSubtotal(subtotal);
-        invoice.setTaxTotal(taxTotal);
-        invoice.setDiscountTotal(discountTotal);
-        invoice.setTotalAmount(totalAmount);
+        InvoicePricing.applyTotals(invoice);
         invoice.setAmountPaid(BigDecimal.ZERO);
 
-        Invoice saved = invoiceRepository.save(invoice);
-
-        return InvoiceMapper.toResponse(saved);
+        return invoice;
     }
 
     @Transactional
+    @Metered("smartinvoice.invoice.operations")
     public InvoiceResponse sendInvoice(UUID invoiceId) {
 
         Invoice invoice = getInvoice(invoiceId);
@@ -117,192 +123,334 @@ public class InvoiceService {
             throw new IllegalStateException("Cannot send invoice without line items");
         }
 
+        verifyTotals(invoice);
+
         if (invoice.getTotalAmount().compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalStateException("Invoice total must be greater than zero");
         }
 
         invoice.setStatus(InvoiceStatus.SENT);
 
+        eventPublisher.publishEvent(new InvoiceChangedEvent(invoice.getBusinessId()));
+
         return InvoiceMapper.toResponse(invoice);
     }
 
     @Transactional
+    @Metered("smartinvoice.invoice.operations")
     public InvoiceResponse addLineItem(UUID invoiceId,
             CreateInvoiceRequest.LineItemRequest request) {
 
-        Invoice invoice = getInvoice(invoiceId);
+        Invoice invoice = getInvoiceWithoutLineItems(invoiceId);
         ensureDraft(invoice);
 
         InvoiceLineItem item = new InvoiceLineItem();
 
         item.setInvoice(invoice);
-        item.setDescription(request.getDescription());
-        item.setQuantity(request.getQuantity());
-        item.setUnitPrice(request.getUnitPrice());
-        item.setTaxPercent(defaultIfNull(request.getTaxPercent()));
-        item.setDiscountPercent(defaultIfNull(request.getDiscountPercent()));
+        copyLineItem(request, item);
 
-        invoice.getLineItems().add(item);
+        InvoicePricing.addLine(invoice, item);
 
-        recalculateTotals(invoice);
+        invoiceLineItemRepository.save(item);
+        invoiceRepository.flush();
 
-        invoice = invoiceRepository.saveAndFlush(invoice);
+        eventPublisher.publishEvent(new InvoiceChangedEvent(invoice.getBusinessId()));
 
         return InvoiceMapper.toResponse(invoice);
     }
 
     @Transactional
+    @Metered("smartinvoice.invoice.operations")
     public InvoiceResponse updateLineItem(UUID invoiceId,
             UUID itemId,
             CreateInvoiceRequest.LineItemRequest request) {
 
-        Invoice invoice = getInvoice(invoiceId);
+        Invoice invoice = getInvoiceWithoutLineItems(invoiceId);
         ensureDraft(invoice);
 
-        InvoiceLineItem item = invoice.getLineItems()
-                .stream()
-                .filter(i -> i.getId().equals(itemId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Line item not found"));
+        InvoiceLineItem item = getLineItem(invoiceId, itemId);
 
-        item.setDescription(request.getDescription());
-        item.setQuantity(request.getQuantity());
-        item.setUnitPrice(request.getUnitPrice());
-        item.setTaxPercent(defaultIfNull(request.getTaxPercent()));
-        item.setDiscountPercent(defaultIfNull(request.getDiscountPercent()));
+        InvoicePricing.removeLine(invoice, item);
+        copyLineItem(request, item);
+        InvoicePricing.addLine(invoice, item);
 
-        recalculateTotals(invoice);
+        eventPublisher.publishEvent(new InvoiceChangedEvent(invoice.getBusinessId()));
 
         return InvoiceMapper.toResponse(invoice);
     }
 
     @Transactional
+    @Metered("smartinvoice.invoice.operations")
     public InvoiceResponse deleteLineItem(UUID invoiceId, UUID itemId) {
 
-        Invoice invoice = getInvoice(invoiceId);
+        Invoice invoice = getInvoiceWithoutLineItems(invoiceId);
         ensureDraft(invoice);
 
-        boolean removed = invoice.getLineItems()
-                .removeIf(i -> i.getId().equals(itemId));
+        InvoiceLineItem item = getLineItem(invoiceId, itemId);
+
+        InvoicePricing.removeLine(invoice, item);
 
-        if (!removed) {
-            throw new RuntimeException("Line item not found");
+        invoiceLineItemRepository.delete(item);
+        invoiceRepository.flush();
+
+        eventPublisher.publishEvent(new InvoiceChangedEvent(invoice.getBusinessId()));
+
+        return InvoiceMapper.toResponse(invoice);
+    }
+
+    /**
+     * Applies a list of add, update and delete operations to a draft invoice
+     * in one transaction. Only the referenced line items are loaded, the
+     * totals are adjusted by each line's delta and written once, and the
+     * resulting inserts, updates and deletes are flushed as JDBC batches.
+     */
+    @Transactional
+    @Metered("smartinvoice.invoice.operations")
+    public InvoiceResponse applyLineItemOperations(UUID invoiceId,
+            List<LineItemOperationRequest> operations) {
+
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("At least one line item operation is required");
+        }
+
+        if (operations.size() > MAX_LINE_ITEM_OPERATIONS) {
+            throw new IllegalArgumentException(
+                    "At most " + MAX_LINE_ITEM_OPERATIONS + " line item operations are allowed");
         }
 
-        recalculateTotals(invoice);
+        for (int i = 0; i < operations.size(); i++) {
+            validateOperation(i, operations.get(i));
+        }
+
+        Invoice invoice = getInvoiceWithoutLineItems(invoiceId);
+        ensureDraft(invoice);
+
+        Set<UUID> referencedIds = operations.stream()
+                .map(LineItemOperationRequest::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<UUID, InvoiceLineItem> existing = new HashMap<>();
+
+        if (!referencedIds.isEmpty()) {
+            for (InvoiceLineItem item : invoiceLineItemRepository.findByInvoiceIdAndIdIn(invoiceId, referencedIds)) {
+                existing.put(item.getId(), item);
+            }
+        }
+
+        List<InvoiceLineItem> added = new ArrayList<>();
+        List<InvoiceLineItem> deleted = new ArrayList<>();
+
+        for (LineItemOperationRequest operation : operations) {
+
+            switch (operation.getOp()) {
+
+                case ADD -> {
+                    InvoiceLineItem item = new InvoiceLineItem();
+                    item.setInvoice(invoice);
+                    copyLineItem(operation.getItem(), item);
+
+                    InvoicePricing.addLine(invoice, item);
+                    added.add(item);
+                }
+
+                case UPDATE -> {
+                    InvoiceLineItem item = existing.get(operation.getId());
+
+                    if (item == null) {
+                        throw new RuntimeException("Line item not found: " + operation.getId());
+                    }
+
+                    InvoicePricing.removeLine(invoice, item);
+                    copyLineItem(operation.getItem(), item);
+                    InvoicePricing.addLine(invoice, item);
+                }
+
+                case DELETE -> {
+                    InvoiceLineItem item = existing.remove(operation.getId());
+
+                    if (item == null) {
+                        throw new RuntimeException("Line item not found: " + operation.getId());
+                    }
+
+                    InvoicePricing.removeLine(invoice, item);
+                    deleted.add(item);
+                }
+            }
+        }
+
+        invoiceLineItemRepository.saveAll(added);
+        invoiceLineItemRepository.deleteAll(deleted);
+        invoiceRepository.flush();
+
+        eventPublisher.publishEvent(new InvoiceChangedEvent(invoice.getBusinessId()));
 
         return InvoiceMapper.toResponse(invoice);
     }
 
+    private void validateOperation(int index, LineItemOperationRequest operation) {
+
+        String prefix = "operations[" + index + "]";
+
+        if (operation == null || operation.getOp() == null) {
+            throw new IllegalArgumentException(prefix + ".op is required");
+        }
+
+        if (operation.getOp() != LineItemOperationRequest.Operation.ADD && operation.getId() == null) {
+            throw new IllegalArgumentException(prefix + ".id is required for " + operation.getOp());
+        }
+
+        if (operation.getOp() == LineItemOperationRequest.Operation.DELETE) {
+            return;
+        }
+
+        if (operation.getItem() == null) {
+            throw new IllegalArgumentException(prefix + ".item is required for " + operation.getOp());
+        }
+
+        Set<ConstraintViolation<CreateInvoiceRequest.LineItemRequest>> violations =
+                validator.validate(operation.getItem());
+
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> prefix + ".item." + v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private static void copyLineItem(CreateInvoiceRequest.LineItemRequest request, InvoiceLineItem item) {
+
+        item.setDescription(request.getDescription());
+        item.setQuantity(request.getQuantity());
+        item.setUnitPrice(request.getUnitPrice());
+        item.setTaxPercent(defaultIfNull(request.getTaxPercent()));
+        item.setDiscountPercent(defaultIfNull(request.getDiscountPercent()));
+    }
+
     private Invoice getInvoice(UUID invoiceId) {
 
-        UUID businessId = UUID.fromString(getBusinessId());
+        UUID businessId = BusinessContext.getBusinessId();
 
         return invoiceRepository
-                .findByBusinessIdAndId(businessId, invoiceId)
+                .findWithLineItemsByBusinessIdAndId(businessId, invoiceId)
                 .orElseThrow(() -> new RuntimeException("Invoice not found"));
     }
 
-    @Transactional(readOnly = true)
-    public InvoiceResponse getInvoiceById(UUID id) {
+    private Invoice getInvoiceWithoutLineItems(UUID invoiceId) {
 
-        UUID businessId = UUID.fromString(BusinessContext.getBusinessId());
+        UUID businessId = BusinessContext.getBusinessId();
 
-        Invoice invoice = invoiceRepository
-                .findByIdAndBusinessId(id, businessId)
+        return invoiceRepository
+                .findByBusinessIdAndId(businessId, invoiceId)
                 .orElseThrow(() -> new RuntimeException("Invoice not found"));
-
-        return InvoiceMapper.toResponse(invoice);
     }
 
-    private void ensureDraft(Invoice invoice) {
+    private InvoiceLineItem getLineItem(UUID invoiceId, UUID itemId) {
 
-        if (invoice.getStatus() != InvoiceStatus.DRAFT) {
-            throw new IllegalStateException(
-                    "Only DRAFT invoices can be modified");
-        }
+        return invoiceLineItemRepository
+                .findByIdAndInvoiceId(itemId, invoiceId)
+                .orElseThrow(() -> new RuntimeException("Line item not found"));
     }
 
-    private void recalculateTotals(Invoice invoice) {
+    @Transactional(readOnly = true)
+    public InvoiceResponse getInvoiceById(UUID id) {
 
-        BigDecimal subtotal = BigDecimal.ZERO;
-        BigDecimal taxTotal = BigDecimal.ZERO;
-        BigDecimal discountTotal = BigDecimal.ZERO;
+        UUID businessId = BusinessContext.getBusinessId();
 
-        for (InvoiceLineItem item : invoice.getLineItems()) {
+        Invoice invoice = invoiceRepository
+                .findWithLineItemsByBusinessIdAndId(businessId, id)
+                .orElseThrow(() -> new RuntimeException("Invoice not found"));
 
-            BigDecimal base = item.getQuantity()
-                    .multiply(item.getUnitPrice());
+        return InvoiceMapper.toResponse(invoice);
+    }
 
-            BigDecimal taxPercent = defaultIfNull(item.getTaxPercent());
-            BigDecimal discountPercent = defaultIfNull(item.getDiscountPercent());
+    /**
+     * Line item edits only apply deltas to the invoice totals, so they are
+     * re-derived from every line once more before the invoice leaves DRAFT.
+     */
+    private void verifyTotals(Invoice invoice) {
 
-            BigDecimal tax = base.multiply(taxPercent)
-                    .divide(BigDecimal.valueOf(100));
+        BigDecimal recordedTotal = invoice.getTotalAmount();
 
-            BigDecimal discount = base.multiply(discountPercent)
-                    .divide(BigDecimal.valueOf(100));
+        InvoicePricing.applyTotals(invoice);
 
-            BigDecimal lineTotal = base.add(tax).subtract(discount);
+        if (recordedTotal == null || recordedTotal.compareTo(invoice.getTotalAmount()) != 0) {
+            log.warn("Corrected total of invoice {} from {} to {}",
+                    invoice.getId(), recordedTotal, invoice.getTotalAmount());
+        }
+    }
 
-            item.setLineTotal(lineTotal);
+    private void ensureDraft(Invoice invoice) {
 
-            subtotal = subtotal.add(base);
-            taxTotal = taxTotal.add(tax);
-            discountTotal = discountTotal.add(discount);
+        if (invoice.getStatus() != InvoiceStatus.DRAFT) {
+            throw new IllegalStateException(
+                    "Only DRAFT invoices can be modified");
         }
-
-        invoice.setSubtotal(subtotal);
-        invoice.setTaxTotal(taxTotal);
-        invoice.setDiscountTotal(discountTotal);
-        invoice.setTotalAmount(
-                subtotal.add(taxTotal).subtract(discountTotal));
     }
 
-    private BigDecimal defaultIfNull(BigDecimal value) {
+    private static BigDecimal defaultIfNull(BigDecimal value) {
         return value == null ? BigDecimal.ZERO : value;
     }
 
-    @Transactional
+    @Metered("smartinvoice.invoice.operations")
     public InvoiceResponse recordPayment(UUID invoiceId,
             RecordPaymentRequest request,
             String idempotencyKey) {
 
-        UUID businessId = UUID.fromString(getBusinessId());
+        UUID businessId = BusinessContext.getBusinessId();
+
+        Optional<InvoiceResponse> cached = idempotencyCache.get(businessId, idempotencyKey);
 
+        if (cached.isPresent()) {
+            serviceMetrics.recordIdempotency(ServiceMetrics.IDEMPOTENCY_CACHE_HIT);
+            return cached.get();
+        }
 
-        Optional<IdempotencyKey> existing = idempotencyRepository
-                .findByBusinessIdAndIdempotencyKey(
-                        businessId,
-                        idempotencyKey);
+        // Each attempt overwrites the result, so a retried request is counted once
+        AtomicReference<String> idempotencyResult = new AtomicReference<>();
 
-        if (existing.isPresent()) {
-            try {
-                return objectMapper.readValue(
-                        existing.get().getResponseBody(),
-                        InvoiceResponse.class);
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to deserialize stored response");
+        try {
+            return conflictRetryPolicy.execute(() -> transactionTemplate.execute(status ->
+                    applyPayment(businessId, invoiceId, request, idempotencyKey, idempotencyResult)));
+        } finally {
+            if (idempotencyResult.get() != null) {
+                serviceMetrics.recordIdempotency(idempotencyResult.get());
             }
         }
+    }
 
-        Invoice invoice = getInvoice(invoiceId);
-
+    private InvoiceResponse applyPayment(UUID businessId,
+            UUID invoiceId,
+            RecordPaymentRequest request,
+            String idempotencyKey,
+            AtomicReference<String> idempotencyResult) {
 
-        if (!(invoice.getStatus() == InvoiceStatus.SENT
-                || invoice.getStatus() == InvoiceStatus.OVERDUE
-                || invoice.getStatus() == InvoiceStatus.PARTIALLY_PAID
-                || invoice.getStatus() == InvoiceStatus.REFUNDED)) {
+        int claimed = idempotencyRepository.claim(
+                UUID.randomUUID(),
+                businessId,
+                idempotencyKey,
+                LocalDateTime.now());
 
-            throw new IllegalStateException("Invoice is not payable");
+        if (claimed == 0) {
+            idempotencyResult.set(ServiceMetrics.IDEMPOTENCY_STORED_HIT);
+            return storedResponse(businessId, idempotencyKey);
         }
 
+        idempotencyResult.set(ServiceMetrics.IDEMPOTENCY_MISS);
 
+        // Row lock serialises payments against the same invoice until commit,
+        // instead of letting them race on the version and exhaust their retries
+        invoiceRepository.findForUpdateByBusinessIdAndId(businessId, invoiceId)
+                .orElseThrow(() -> new RuntimeException("Invoice not found"));
 
+        Invoice invoice = getInvoice(invoiceId);
 
-        BigDecimal newAmountPaid = invoice.getAmountPaid().add(request.getAmount());
+        if (!PaymentRules.isPayable(invoice)) {
+            throw new IllegalStateException("Invoice is not payable");
+        }
 
-        if (newAmountPaid.compareTo(invoice.getTotalAmount()) > 0) {
+        if (PaymentRules.exceedsBalance(invoice, request.getAmount())) {
             throw new IllegalArgumentException("Payment exceeds remaining balance");
         }
 
@@ -319,6 +467,15 @@ public class InvoiceService {
 
         paymentRepository.save(payment);
 
+        revenueRollupRepository.addDailyRevenue(
+                businessId,
+                payment.getCreatedAt().toLocalDate(),
+                payment.getAmount());
+        revenueRollupRepository.addCustomerRevenue(
+                businessId,
+                invoice.getCustomerId(),
+                payment.getAmount());
+
         auditService.log(
                 businessId,
                 "PAYMENT",
@@ -328,61 +485,79 @@ public class InvoiceService {
                 payment);
 
 
-        invoice.setAmountPaid(newAmountPaid);
+        PaymentRules.apply(invoice, request.getAmount());
 
-        if (newAmountPaid.compareTo(invoice.getTotalAmount()) == 0) {
-            invoice.setStatus(InvoiceStatus.PAID);
-        } else {
-            invoice.setStatus(InvoiceStatus.PARTIALLY_PAID);
-        }
+        // Flush now so a concurrent update fails the version check here
+        invoiceRepository.saveAndFlush(invoice);
+
+        eventPublisher.publishEvent(new InvoiceChangedEvent(businessId));
 
         InvoiceResponse response = InvoiceMapper.toResponse(invoice);
 
 
         try {
-            String json = objectMapper.writeValueAsString(response);
-
-            IdempotencyKey record = new IdempotencyKey();
-            record.setBusinessId(businessId);
-            record.setIdempotencyKey(idempotencyKey);
-            record.setResponseBody(json);
-
-            idempotencyRepository.save(record);
+            idempotencyRepository.storeResponse(
+                    businessId,
+                    idempotencyKey,
+                    objectMapper.writeValueAsString(response));
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to store idempotency record");
         }
 
+        idempotencyCache.putAfterCommit(businessId, idempotencyKey, response);
+
         return response;
     }
 
-    @Transactional
+    private InvoiceResponse storedResponse(UUID businessId, String idempotencyKey) {
+
+        IdempotencyKey existing = idempotencyRepository
+                .findByBusinessIdAndIdempotencyKey(businessId, idempotencyKey)
+                .orElseThrow(() -> new IllegalStateException("Idempotency key is being processed"));
+
+        try {
+            InvoiceResponse stored = objectMapper.readValue(
+                    existing.getResponseBody(),
+                    InvoiceResponse.class);
+            idempotencyCache.put(businessId, idempotencyKey, stored);
+            return stored;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to deserialize stored response");
+        }
+    }
+
+    @Metered("smartinvoice.invoice.operations")
     public InvoiceResponse refundPayment(UUID paymentId,
             RefundRequest request) {
 
-        UUID businessId = UUID.fromString(BusinessContext.getBusinessId());
-
-        Payment payment = paymentRepository
-                .findById(paymentId)
-                .orElseThrow(() -> new RuntimeException("Payment not found"));
+        UUID businessId = BusinessContext.getBusinessId();
 
-        if (!payment.getBusinessId().equals(businessId)) {
-            throw new RuntimeException("Unauthorized access");
-        }
+        return conflictRetryPolicy.execute(() -> transactionTemplate.execute(status ->
+                applyRefund(businessId, paymentId, request)));
+    }
 
+    private InvoiceResponse applyRefund(UUID businessId,
+            UUID paymentId,
+            RefundRequest request) {
 
-        java.util.List<Refund> existingRefunds = refundRepository.findByPaymentId(paymentId);
+        // Row lock serialises refunds of the same payment until commit
+        Payment payment = paymentRepository
+                .findForUpdateByIdAndBusinessId(paymentId, businessId)
+                .orElseThrow(() -> new RuntimeException("Payment not found"));
 
-        BigDecimal totalRefunded = existingRefunds.stream()
-                .map(Refund::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Lock the invoice before any rollup write, in the same order as
+        // applyPayment, so a concurrent payment and refund cannot deadlock
+        invoiceRepository.findForUpdateByBusinessIdAndId(businessId, payment.getInvoiceId())
+                .orElseThrow(() -> new RuntimeException("Invoice not found"));
 
-        BigDecimal newTotalRefunded = totalRefunded.add(request.getAmount());
+        BigDecimal newTotalRefunded = payment.getRefundedAmount().add(request.getAmount());
 
         if (newTotalRefunded.compareTo(payment.getAmount()) > 0) {
             throw new IllegalArgumentException("Refund exceeds payment amount");
         }
 
+        payment.setRefundedAmount(newTotalRefunded);
 
         Refund refund = new Refund();
         refund.setPaymentId(paymentId);
@@ -394,7 +569,11 @@ public class InvoiceService {
 
         if (newTotalRefunded.compareTo(payment.getAmount()) == 0) {
             payment.setStatus(PaymentStatus.REFUNDED);
-            paymentRepository.save(payment);
+
+            revenueRollupRepository.addDailyRevenue(
+                    businessId,
+                    payment.getCreatedAt().toLocalDate(),
+                    payment.getAmount().negate());
         }
 
         auditService.log(
@@ -408,6 +587,12 @@ public class InvoiceService {
 
         Invoice invoice = getInvoice(payment.getInvoiceId());
         Invoice oldInvoiceState = cloneInvoice(invoice);
+
+        revenueRollupRepository.addCustomerRevenue(
+                businessId,
+                invoice.getCustomerId(),
+                request.getAmount().negate());
+
         BigDecimal updatedAmountPaid = invoice.getAmountPaid().subtract(request.getAmount());
 
         invoice.setAmountPaid(updatedAmountPaid);
@@ -419,7 +604,10 @@ public class InvoiceService {
         } else {
             invoice.setStatus(InvoiceStatus.PAID);
         }
-        invoiceRepository.save(invoice);
+        invoiceRepository.saveAndFlush(invoice);
+
+        eventPublisher.publishEvent(new InvoiceChangedEvent(businessId));
+
         auditService.log(
                 businessId,
                 "INVOICE",
@@ -446,19 +634,103 @@ public class InvoiceService {
     @Transactional(readOnly = true)
     public List<InvoiceResponse> getAllInvoices() {
 
-        UUID businessId = UUID.fromString(BusinessContext.getBusinessId());
+        UUID businessId = BusinessContext.getBusinessId();
 
         return invoiceRepository
-                .findByBusinessId(businessId)
+                .findWithLineItemsByBusinessId(businessId)
                 .stream()
                 .map(InvoiceMapper::toResponse)
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public PageResponse<InvoiceResponse> listInvoices(InvoiceFilter filter,
+            String cursor,
+            Integer limit) {
+
+        InvoicePage page = findInvoicePage(filter, cursor, limit);
+
+        invoiceJdbcRepository.fetchLineItems(page.invoices());
+
+        return PageResponse.<InvoiceResponse>builder()
+                .items(page.invoices().stream().map(InvoiceMapper::toResponse).toList())
+                .nextCursor(page.nextCursor())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<InvoiceSummaryResponse> listInvoiceSummaries(InvoiceFilter filter,
+            String cursor,
+            Integer limit) {
+
+        InvoicePage page = findInvoicePage(filter, cursor, limit);
+
+        return PageResponse.<InvoiceSummaryResponse>builder()
+                .items(page.invoices().stream().map(InvoiceMapper::toSummary).toList())
+                .nextCursor(page.nextCursor())
+                .build();
+    }
+
+    /**
+     * Writes every matching invoice as NDJSON while rows are read from the
+     * database cursor. The business id is passed explicitly because streaming
+     * runs outside the request thread.
+     */
+    @Transactional(readOnly = true)
+    public void streamInvoices(UUID businessId,
+            InvoiceFilter filter,
+            boolean summary,
+            OutputStream out) throws IOException {
+
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+            invoiceJdbcRepository.stream(businessId, filter, !summary, invoice ->
+                    writer.write(summary
+                            ? InvoiceMapper.toSummary(invoice)
+                            : InvoiceMapper.toResponse(invoice)));
+        }
+    }
+
+    private InvoicePage findInvoicePage(InvoiceFilter filter, String cursor, Integer limit) {
+
+        UUID businessId = BusinessContext.getBusinessId();
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        LocalDate afterIssueDate = null;
+        UUID afterId = null;
+
+        if (cursor != null) {
+            String[] parts = KeysetCursor.decode(cursor, 2);
+            afterIssueDate = LocalDate.parse(parts[0]);
+            afterId = UUID.fromString(parts[1]);
+        }
+
+        List<Invoice> invoices = invoiceJdbcRepository.findPage(
+                businessId, filter, afterIssueDate, afterId, pageSize + 1);
+
+        String nextCursor = null;
+
+        if (invoices.size() > pageSize) {
+            invoices = invoices.subList(0, pageSize);
+            Invoice last = invoices.get(pageSize - 1);
+            nextCursor = KeysetCursor.encode(
+                    last.getIssueDate() == null ? InvoiceJdbcRepository.NO_ISSUE_DATE : last.getIssueDate(),
+                    last.getId());
+        }
+
+        return new InvoicePage(invoices, nextCursor);
+    }
+
+    private record InvoicePage(List<Invoice> invoices, String nextCursor) {
+    }
+
     @Transactional(readOnly = true)
     public List<PaymentResponse> getPaymentsByInvoice(UUID invoiceId) {
 
-        UUID businessId = UUID.fromString(BusinessContext.getBusinessId());
+        UUID businessId = BusinessContext.getBusinessId();
 
 
         invoiceRepository
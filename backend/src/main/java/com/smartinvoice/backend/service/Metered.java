@@ -0,0 +1,17 @@
+package com.smartinvoice.backend.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Times the annotated method under the given timer name, tagged with the
+ * method name as the operation. See {@link MeteredAspect}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Metered {
+
+    String value();
+}
@@ -0,0 +1,46 @@
+package com.smartinvoice.backend.service;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records {@link Metered} methods as timers tagged with operation, tenant
+ * tier and outcome. It runs outside the transaction advice, so commit time
+ * and conflict retries are part of the measured latency. The order must stay
+ * after ExposeInvocationInterceptor, which binds the annotation argument.
+ */
+@Aspect
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class MeteredAspect {
+
+    private final ServiceMetrics serviceMetrics;
+
+    @Around("@annotation(metered)")
+    public Object time(ProceedingJoinPoint joinPoint, Metered metered) throws Throwable {
+
+        long start = System.nanoTime();
+        Throwable error = null;
+
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            Timer timer = serviceMetrics.timer(
+                    metered.value(),
+                    joinPoint.getSignature().getName(),
+                    ServiceMetrics.outcome(error));
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.domain.InvoiceStatus;
+import com.smartinvoice.backend.repository.InvoiceJdbcRepository;
+import com.smartinvoice.backend.repository.InvoiceJdbcRepository.StatusChange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Moves SENT and PARTIALLY_PAID invoices past their due date to OVERDUE, so
+ * the overdue report is a plain status lookup. Each chunk is one UPDATE in
+ * its own transaction that skips rows locked by live payments or by another
+ * node, so several nodes can sweep at once without blocking anyone. Audit
+ * entries of a chunk are written together when it commits.
+ */
+@Slf4j
+@Component
+public class OverdueInvoiceSweeper {
+
+    private final InvoiceJdbcRepository invoiceJdbcRepository;
+    private final AuditService auditService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public OverdueInvoiceSweeper(InvoiceJdbcRepository invoiceJdbcRepository,
+            AuditService auditService,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${smartinvoice.overdue.sweep-batch-size:1000}") int batchSize) {
+
+        this.invoiceJdbcRepository = invoiceJdbcRepository;
+        this.auditService = auditService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${smartinvoice.overdue.sweep-initial-delay:PT10S}",
+            fixedDelayString = "${smartinvoice.overdue.sweep-interval:PT5M}")
+    public void sweep() {
+
+        LocalDate today = LocalDate.now();
+
+        int total = 0;
+        Integer swept;
+
+        do {
+            swept = transactionTemplate.execute(status -> sweepChunk(today));
+            total += swept == null ? 0 : swept;
+        } while (swept != null && swept == batchSize);
+
+        if (total > 0) {
+            log.info("Marked {} invoices due before {} as overdue", total, today);
+        }
+    }
+
+    private int sweepChunk(LocalDate today) {
+
+        List<StatusChange> changes = invoiceJdbcRepository.markOverdue(today, batchSize);
+
+        Set<UUID> businessIds = new LinkedHashSet<>();
+
+        for (StatusChange change : changes) {
+
+            auditService.log(
+                    change.businessId(),
+                    "INVOICE",
+                    change.invoiceId(),
+                    "MARKED_OVERDUE",
+                    Map.of("status", change.previousStatus()),
+                    Map.of("status", InvoiceStatus.OVERDUE));
+
+            businessIds.add(change.businessId());
+        }
+
+        businessIds.forEach(businessId -> eventPublisher.publishEvent(new InvoiceChangedEvent(businessId)));
+
+        return changes.size();
+    }
+}
@@ -0,0 +1,50 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.domain.Invoice;
+import com.smartinvoice.backend.domain.InvoiceStatus;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Rules for applying a received payment to an invoice, shared by single
+ * payments and reconciliation imports.
+ */
+final class PaymentRules {
+
+    private static final Set<InvoiceStatus> PAYABLE_STATUSES = EnumSet.of(
+            InvoiceStatus.SENT,
+            InvoiceStatus.OVERDUE,
+            InvoiceStatus.PARTIALLY_PAID,
+            InvoiceStatus.REFUNDED);
+
+    private PaymentRules() {
+    }
+
+    static boolean isPayable(Invoice invoice) {
+        return PAYABLE_STATUSES.contains(invoice.getStatus());
+    }
+
+    static boolean exceedsBalance(Invoice invoice, BigDecimal amount) {
+        return invoice.getAmountPaid().add(amount).compareTo(invoice.getTotalAmount()) > 0;
+    }
+
+    /**
+     * Adds the amount to the invoice and moves it to PAID, or to
+     * PARTIALLY_PAID unless it is already OVERDUE. Callers must have checked
+     * {@link #isPayable} and {@link #exceedsBalance}.
+     */
+    static void apply(Invoice invoice, BigDecimal amount) {
+
+        BigDecimal newAmountPaid = invoice.getAmountPaid().add(amount);
+
+        invoice.setAmountPaid(newAmountPaid);
+
+        if (newAmountPaid.compareTo(invoice.getTotalAmount()) == 0) {
+            invoice.setStatus(InvoiceStatus.PAID);
+        } else if (invoice.getStatus() != InvoiceStatus.OVERDUE) {
+            invoice.setStatus(InvoiceStatus.PARTIALLY_PAID);
+        }
+    }
+}
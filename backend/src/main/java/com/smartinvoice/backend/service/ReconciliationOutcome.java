@@ -0,0 +1,13 @@
+package com.smartinvoice.backend.service;
+
+public enum ReconciliationOutcome {
+    APPLIED,
+    ALREADY_APPLIED,
+    INVALID,
+    DUPLICATE_IN_FILE,
+    UNMATCHED,
+    CURRENCY_MISMATCH,
+    NOT_PAYABLE,
+    OVERPAYMENT,
+    FAILED
+}
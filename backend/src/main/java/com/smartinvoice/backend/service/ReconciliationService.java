@@ -0,0 +1,380 @@
+package com.smartinvoice.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.smartinvoice.backend.domain.Invoice;
+import com.smartinvoice.backend.domain.Payment;
+import com.smartinvoice.backend.domain.PaymentStatus;
+import com.smartinvoice.backend.dto.ReconciliationLineResult;
+import com.smartinvoice.backend.dto.ReconciliationReport;
+import com.smartinvoice.backend.dto.SettlementLine;
+import com.smartinvoice.backend.repository.InvoiceRepository;
+import com.smartinvoice.backend.repository.PaymentRepository;
+import com.smartinvoice.backend.repository.RevenueRollupRepository;
+import com.smartinvoice.backend.tenant.BusinessContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Posts bank settlement files as payments. Lines are streamed and processed
+ * in chunks; each chunk locks its invoices once, in id order, applies every
+ * line for an invoice against that single locked row and writes payments,
+ * invoice updates, rollups and audit entries in one transaction.
+ *
+ * A line names its invoice by invoiceNumber, or by paymentReference when the
+ * invoice number is absent. The payment reference is required and unique per
+ * business, so importing the same file twice applies nothing new.
+ *
+ * A chunk that loses a locking race, or collides with a payment reference
+ * recorded concurrently, is retried through {@link ConflictRetryPolicy}. If
+ * it still cannot be posted, its lines are reported as FAILED and the import
+ * carries on, so the report covers the chunks that were already committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReconciliationService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_MISMATCHES = 10_000;
+
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .readerFor(SettlementLine.class)
+            .with(CsvSchema.emptySchema().withHeader())
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final InvoiceRepository invoiceRepository;
+    private final PaymentRepository paymentRepository;
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final AuditService auditService;
+    private final TransactionTemplate transactionTemplate;
+    private final ConflictRetryPolicy conflictRetryPolicy;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReconciliationReport importCsv(Reader reader) throws IOException {
+
+        Reconciliation reconciliation = new Reconciliation(BusinessContext.getBusinessId());
+
+        try (MappingIterator<SettlementLine> lines = CSV_READER.readValues(reader)) {
+
+            // Line 1 is the header
+            int lineNumber = 1;
+
+            while (lines.hasNextValue()) {
+                lineNumber++;
+                try {
+                    reconciliation.add(lineNumber, lines.nextValue());
+                } catch (JsonProcessingException e) {
+                    reconciliation.reject(lineNumber, null, "Malformed line: " + e.getOriginalMessage());
+                }
+            }
+        }
+
+        return reconciliation.finish();
+    }
+
+    public ReconciliationReport importNdjson(BufferedReader reader) throws IOException {
+
+        Reconciliation reconciliation = new Reconciliation(BusinessContext.getBusinessId());
+
+        int lineNumber = 0;
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+
+            lineNumber++;
+
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                reconciliation.add(lineNumber, objectMapper.readValue(line, SettlementLine.class));
+            } catch (JsonProcessingException e) {
+                reconciliation.reject(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        return reconciliation.finish();
+    }
+
+    private static String validate(SettlementLine line) {
+
+        if (line == null) {
+            return "Line must not be empty";
+        }
+
+        if (line.getPaymentReference() == null || line.getPaymentReference().isBlank()) {
+            return "paymentReference must not be blank";
+        }
+
+        if (line.getAmount() == null || line.getAmount().signum() <= 0) {
+            return "amount must be greater than 0";
+        }
+
+        return null;
+    }
+
+    private static String invoiceNumberOf(SettlementLine line) {
+        return line.getInvoiceNumber() == null || line.getInvoiceNumber().isBlank()
+                ? line.getPaymentReference()
+                : line.getInvoiceNumber();
+    }
+
+    private record PendingLine(int lineNumber, SettlementLine line) {
+    }
+
+    private record LineOutcome(ReconciliationOutcome outcome, String message) {
+    }
+
+    private class Reconciliation {
+
+        private final UUID businessId;
+        private final Set<String> seenReferences = new HashSet<>();
+        private final List<PendingLine> chunk = new ArrayList<>(CHUNK_SIZE);
+        private final List<ReconciliationLineResult> mismatches = new ArrayList<>();
+
+        private int total;
+        private int applied;
+        private int alreadyApplied;
+        private int mismatched;
+        private BigDecimal appliedAmount = BigDecimal.ZERO;
+
+        Reconciliation(UUID businessId) {
+            this.businessId = businessId;
+        }
+
+        void add(int lineNumber, SettlementLine line) {
+
+            chunk.add(new PendingLine(lineNumber, line));
+
+            if (chunk.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(int lineNumber, SettlementLine line, String message) {
+
+            flush();
+            record(new PendingLine(lineNumber, line), new LineOutcome(ReconciliationOutcome.INVALID, message));
+        }
+
+        ReconciliationReport finish() {
+
+            flush();
+
+            return ReconciliationReport.builder()
+                    .total(total)
+                    .applied(applied)
+                    .alreadyApplied(alreadyApplied)
+                    .mismatched(mismatched)
+                    .appliedAmount(appliedAmount)
+                    .mismatches(mismatches)
+                    .build();
+        }
+
+        private void flush() {
+
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            Map<PendingLine, LineOutcome> outcomes = new LinkedHashMap<>();
+            List<PendingLine> valid = new ArrayList<>();
+
+            for (PendingLine pending : chunk) {
+
+                String error = validate(pending.line());
+
+                if (error != null) {
+                    outcomes.put(pending, new LineOutcome(ReconciliationOutcome.INVALID, error));
+                } else if (!seenReferences.add(pending.line().getPaymentReference())) {
+                    outcomes.put(pending, new LineOutcome(ReconciliationOutcome.DUPLICATE_IN_FILE,
+                            "Payment reference appears earlier in the file"));
+                } else {
+                    valid.add(pending);
+                }
+            }
+
+            if (!valid.isEmpty()) {
+                outcomes.putAll(post(valid));
+            }
+
+            for (PendingLine pending : chunk) {
+                record(pending, outcomes.get(pending));
+            }
+
+            chunk.clear();
+        }
+
+        private Map<PendingLine, LineOutcome> post(List<PendingLine> lines) {
+
+            try {
+                return conflictRetryPolicy.execute(() -> {
+                    try {
+                        return transactionTemplate.execute(status -> apply(lines));
+                    } catch (DataIntegrityViolationException e) {
+                        // A payment reference was recorded concurrently; the retry reports it as already applied
+                        throw new ConcurrencyFailureException("Payment reference recorded concurrently", e);
+                    }
+                });
+            } catch (IllegalStateException e) {
+                if (!(e.getCause() instanceof ConcurrencyFailureException)) {
+                    throw e;
+                }
+                log.warn("Reconciliation chunk of {} lines for business {} was not posted", lines.size(), businessId, e);
+                return failed(lines);
+            }
+        }
+
+        private Map<PendingLine, LineOutcome> failed(List<PendingLine> lines) {
+
+            LineOutcome outcome = new LineOutcome(ReconciliationOutcome.FAILED,
+                    "Not posted because of concurrent changes, please import this line again");
+
+            Map<PendingLine, LineOutcome> outcomes = new HashMap<>();
+            lines.forEach(pending -> outcomes.put(pending, outcome));
+            return outcomes;
+        }
+
+        private Map<PendingLine, LineOutcome> apply(List<PendingLine> lines) {
+
+            Set<String> existingReferences = new HashSet<>(paymentRepository.findExistingReferences(
+                    businessId,
+                    lines.stream().map(l -> l.line().getPaymentReference()).toList()));
+
+            Map<String, Invoice> invoices = invoiceRepository
+                    .lockByInvoiceNumbers(
+                            businessId,
+                            lines.stream().map(l -> invoiceNumberOf(l.line())).collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(Invoice::getInvoiceNumber, i -> i));
+
+            Map<PendingLine, LineOutcome> outcomes = new HashMap<>();
+            Map<Payment, Invoice> payments = new LinkedHashMap<>();
+
+            for (PendingLine pending : lines) {
+
+                SettlementLine line = pending.line();
+                Invoice invoice = invoices.get(invoiceNumberOf(line));
+
+                LineOutcome outcome;
+
+                if (existingReferences.contains(line.getPaymentReference())) {
+                    outcome = new LineOutcome(ReconciliationOutcome.ALREADY_APPLIED, null);
+                } else if (invoice == null) {
+                    outcome = new LineOutcome(ReconciliationOutcome.UNMATCHED, "Invoice not found");
+                } else if (line.getCurrency() != null && !line.getCurrency().equalsIgnoreCase(invoice.getCurrency())) {
+                    outcome = new LineOutcome(ReconciliationOutcome.CURRENCY_MISMATCH,
+                            "Invoice currency is " + invoice.getCurrency());
+                } else if (!PaymentRules.isPayable(invoice)) {
+                    outcome = new LineOutcome(ReconciliationOutcome.NOT_PAYABLE,
+                            "Invoice is " + invoice.getStatus());
+                } else if (PaymentRules.exceedsBalance(invoice, line.getAmount())) {
+                    outcome = new LineOutcome(ReconciliationOutcome.OVERPAYMENT,
+                            "Payment exceeds remaining balance of "
+                                    + invoice.getTotalAmount().subtract(invoice.getAmountPaid()));
+                } else {
+                    PaymentRules.apply(invoice, line.getAmount());
+
+                    Payment payment = new Payment();
+                    payment.setBusinessId(businessId);
+                    payment.setInvoiceId(invoice.getId());
+                    payment.setAmount(line.getAmount());
+                    payment.setPaymentReference(line.getPaymentReference());
+                    payment.setCurrency(invoice.getCurrency());
+                    payment.setStatus(PaymentStatus.RECEIVED);
+
+                    payments.put(payment, invoice);
+                    outcome = new LineOutcome(ReconciliationOutcome.APPLIED, null);
+                }
+
+                outcomes.put(pending, outcome);
+            }
+
+            if (payments.isEmpty()) {
+                return outcomes;
+            }
+
+            paymentRepository.saveAll(payments.keySet());
+
+            Map<LocalDate, BigDecimal> revenueByDay = new HashMap<>();
+            Map<UUID, BigDecimal> revenueByCustomer = new HashMap<>();
+
+            payments.forEach((payment, invoice) -> {
+                revenueByDay.merge(payment.getCreatedAt().toLocalDate(), payment.getAmount(), BigDecimal::add);
+                revenueByCustomer.merge(invoice.getCustomerId(), payment.getAmount(), BigDecimal::add);
+
+                auditService.log(
+                        businessId,
+                        "PAYMENT",
+                        payment.getId(),
+                        "CREATED",
+                        null,
+                        payment);
+            });
+
+            revenueByDay.forEach((day, amount) ->
+                    revenueRollupRepository.addDailyRevenue(businessId, day, amount));
+            revenueByCustomer.forEach((customerId, amount) ->
+                    revenueRollupRepository.addCustomerRevenue(businessId, customerId, amount));
+
+            invoiceRepository.flush();
+
+            eventPublisher.publishEvent(new InvoiceChangedEvent(businessId));
+
+            return outcomes;
+        }
+
+        private void record(PendingLine pending, LineOutcome outcome) {
+
+            total++;
+
+            switch (outcome.outcome()) {
+                case APPLIED -> {
+                    applied++;
+                    appliedAmount = appliedAmount.add(pending.line().getAmount());
+                    return;
+                }
+                case ALREADY_APPLIED -> {
+                    alreadyApplied++;
+                    return;
+                }
+                default -> mismatched++;
+            }
+
+            if (mismatches.size() < MAX_REPORTED_MISMATCHES) {
+
+                SettlementLine line = pending.line();
+
+                mismatches.add(ReconciliationLineResult.builder()
+                        .line(pending.lineNumber())
+                        .invoiceNumber(line == null ? null : line.getInvoiceNumber())
+                        .paymentReference(line == null ? null : line.getPaymentReference())
+                        .amount(line == null ? null : line.getAmount())
+                        .outcome(outcome.outcome().name())
+                        .message(outcome.message())
+                        .build());
+            }
+        }
+    }
+}
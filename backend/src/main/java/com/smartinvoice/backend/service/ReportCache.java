@@ -0,0 +1,86 @@
+package com.smartinvoice.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-tenant cache of report results with weight and TTL based eviction.
+ * An entry weighs as many rows as it holds, so the bound is on cached rows
+ * rather than entries: an unpaged outstanding list of a large tenant counts
+ * for all of its rows, and superseded lists are evicted by weight long before
+ * their TTL when a busy tenant keeps changing.
+ * Every key carries the tenant's current generation; an
+ * {@link InvoiceChangedEvent} bumps the generation once the change commits,
+ * which invalidates all of the tenant's entries at once. Superseded entries
+ * are never read again and age out of the cache. Hit and miss counts are
+ * published as the "reports" cache metrics.
+ *
+ * Invalidation is local to this JVM. With several instances, a change made
+ * through one instance is seen by the others only once their entries expire,
+ * so reports there can be stale for up to the TTL
+ * ({@code smartinvoice.reports.cache.ttl}).
+ */
+@Component
+public class ReportCache {
+
+    private final Cache<Key, Object> cache;
+    private final Map<UUID, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public ReportCache(MeterRegistry meterRegistry,
+            @Value("${smartinvoice.reports.cache.max-rows:100000}") long maxRows,
+            @Value("${smartinvoice.reports.cache.ttl:PT5M}") Duration ttl) {
+
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher(ReportCache::weigh)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "reports");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(UUID businessId, String report, List<?> args, Supplier<T> loader) {
+
+        // Read the generation before loading, so a result computed from data
+        // that changes mid-load is stored under the superseded generation
+        Key key = new Key(businessId, generation(businessId).get(), report, args);
+
+        return (T) cache.get(key, k -> loader.get());
+    }
+
+    public void invalidate(UUID businessId) {
+        generation(businessId).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceChanged(InvoiceChangedEvent event) {
+        invalidate(event.businessId());
+    }
+
+    private static int weigh(Key key, Object report) {
+        return report instanceof Collection<?> rows ? Math.max(1, rows.size()) : 1;
+    }
+
+    private AtomicLong generation(UUID businessId) {
+        return generations.computeIfAbsent(businessId, id -> new AtomicLong());
+    }
+
+    private record Key(UUID businessId, long generation, String report, List<?> args) {
+    }
+}
@@ -1,88 +1,233 @@
 package com.smartinvoice.backend.service;
 
 import com.smartinvoice.backend.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartinvoice.backend.repository.AgingReportRepository;
+import com.smartinvoice.backend.repository.KeysetCursor;
+import com.smartinvoice.backend.repository.ReceivableSort;
+import com.smartinvoice.backend.repository.ReportJdbcRepository;
+import com.smartinvoice.backend.repository.RevenueRollupRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import com.smartinvoice.backend.repository.ReportRepository;
 import com.smartinvoice.backend.tenant.BusinessContext;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ReportService {
 
-    private final ReportRepository reportRepository;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
 
-    private UUID getBusinessId() {
-        return UUID.fromString(BusinessContext.getBusinessId());
-    }
+    // Stands in for a missing due date; matches the DUE_DATE sort expression
+    private static final LocalDate NO_DUE_DATE = LocalDate.of(9999, 12, 31);
+
+    private final ReportJdbcRepository reportJdbcRepository;
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final AgingReportRepository agingReportRepository;
+    private final ReportCache reportCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
 
+    @Metered("smartinvoice.report.queries")
     public RevenueResponse revenueByDateRange(LocalDate start,
                                               LocalDate end) {
 
-        BigDecimal revenue = reportRepository.revenueByDateRange(
-                getBusinessId(),
-                start.atStartOfDay(),
-                end.atTime(23, 59, 59)
-        );
+        UUID businessId = BusinessContext.getBusinessId();
 
-        return RevenueResponse.builder()
-                .startDate(start)
-                .endDate(end)
-                .totalRevenue(revenue)
-                .build();
+        return reportCache.get(businessId, "revenue", List.of(start, end), () -> {
+
+            BigDecimal revenue = revenueRollupRepository.revenueBetween(
+                    businessId,
+                    start,
+                    end
+            );
+
+            return RevenueResponse.builder()
+                    .startDate(start)
+                    .endDate(end)
+                    .totalRevenue(revenue)
+                    .build();
+        });
     }
 
+    @Metered("smartinvoice.report.queries")
     public List<OutstandingInvoiceResponse> outstandingInvoices() {
-        return reportRepository.outstandingInvoices(getBusinessId())
-                .stream()
-                .map(row -> OutstandingInvoiceResponse.builder()
-                        .invoiceId((UUID) row[0])
-                        .invoiceNumber((String) row[1])
-                        .customerName((String) row[2])
-                        .remainingAmount((BigDecimal) row[3])
-                        .build())
-                .collect(Collectors.toList());
+
+        UUID businessId = BusinessContext.getBusinessId();
+
+        return reportCache.get(businessId, "outstanding", List.of(), () ->
+                reportJdbcRepository.findAll(businessId, false, ReceivableSort.REMAINING_AMOUNT));
     }
 
+    @Metered("smartinvoice.report.queries")
     public List<OutstandingInvoiceResponse> overdueInvoices() {
-        return reportRepository.overdueInvoices(getBusinessId())
-                .stream()
-                .map(row -> OutstandingInvoiceResponse.builder()
-                        .invoiceId((UUID) row[0])
-                        .invoiceNumber((String) row[1])
-                        .customerName((String) row[2])
-                        .remainingAmount((BigDecimal) row[3])
-                        .build())
-                .collect(Collectors.toList());
+
+        UUID businessId = BusinessContext.getBusinessId();
+
+        return reportCache.get(businessId, "overdue", List.of(), () ->
+                reportJdbcRepository.findAll(businessId, true, ReceivableSort.REMAINING_AMOUNT));
+    }
+
+    @Transactional(readOnly = true)
+    @Metered("smartinvoice.report.queries")
+    public PageResponse<OutstandingInvoiceResponse> outstandingInvoices(ReceivableSort sort,
+            String cursor,
+            Integer limit) {
+        return receivablePage(false, sort, cursor, limit);
+    }
+
+    @Transactional(readOnly = true)
+    @Metered("smartinvoice.report.queries")
+    public PageResponse<OutstandingInvoiceResponse> overdueInvoices(ReceivableSort sort,
+            String cursor,
+            Integer limit) {
+        return receivablePage(true, sort, cursor, limit);
+    }
+
+    /**
+     * Writes every outstanding or overdue invoice as NDJSON while rows are
+     * read from the database cursor. The business id is passed explicitly
+     * because streaming runs outside the request thread.
+     */
+    @Transactional(readOnly = true)
+    public void streamReceivables(UUID businessId,
+            boolean overdue,
+            ReceivableSort sort,
+            OutputStream out) throws IOException {
+
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+            reportJdbcRepository.stream(businessId, overdue, sort, writer::write);
+        }
+    }
+
+    private PageResponse<OutstandingInvoiceResponse> receivablePage(boolean overdue,
+            ReceivableSort sort,
+            String cursor,
+            Integer limit) {
+
+        UUID businessId = BusinessContext.getBusinessId();
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Object afterKey = null;
+        UUID afterId = null;
+
+        if (cursor != null) {
+            // The cursor names its sort, so it cannot be replayed against another ordering
+            String[] parts = KeysetCursor.decode(cursor, 3);
+            if (!parts[0].equals(sort.name())) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            try {
+                afterKey = sort == ReceivableSort.DUE_DATE
+                        ? LocalDate.parse(parts[1])
+                        : new BigDecimal(parts[1]);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+            afterId = UUID.fromString(parts[2]);
+        }
+
+        List<OutstandingInvoiceResponse> rows = reportJdbcRepository.findPage(
+                businessId, overdue, sort, afterKey, afterId, pageSize + 1);
+
+        String nextCursor = null;
+
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            OutstandingInvoiceResponse last = rows.get(pageSize - 1);
+            nextCursor = KeysetCursor.encode(
+                    sort.name(),
+                    sort == ReceivableSort.DUE_DATE
+                            ? sortableDueDate(last.getDueDate())
+                            : last.getRemainingAmount().toPlainString(),
+                    last.getInvoiceId());
+        }
+
+        return PageResponse.<OutstandingInvoiceResponse>builder()
+                .items(rows)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static LocalDate sortableDueDate(LocalDate dueDate) {
+        return dueDate == null ? NO_DUE_DATE : dueDate;
+    }
+
+    /**
+     * Open receivables bucketed by days past due as of the given date, per
+     * customer and in total, grouped by currency.
+     */
+    @Metered("smartinvoice.report.queries")
+    public AgingReportResponse aging(LocalDate asOf, String currency) {
+
+        UUID businessId = BusinessContext.getBusinessId();
+        String normalizedCurrency = currency == null || currency.isBlank()
+                ? null
+                : currency.trim().toUpperCase(Locale.ROOT);
+
+        return reportCache.get(businessId, "aging",
+                List.of(asOf, normalizedCurrency == null ? "" : normalizedCurrency), () -> {
+
+            List<AgingBucketsResponse> totals = new ArrayList<>();
+            List<AgingBucketsResponse> customers = new ArrayList<>();
+
+            for (AgingBucketsResponse row : agingReportRepository.aging(businessId, asOf, normalizedCurrency)) {
+                if (row.getCustomerId() == null) {
+                    totals.add(row);
+                } else {
+                    customers.add(row);
+                }
+            }
+
+            return AgingReportResponse.builder()
+                    .asOf(asOf)
+                    .totals(totals)
+                    .customers(customers)
+                    .build();
+        });
     }
 
+    @Metered("smartinvoice.report.queries")
     public List<RevenueByCustomerResponse> revenueByCustomer() {
-        return reportRepository.revenueByCustomer(getBusinessId())
-                .stream()
-                .map(row -> RevenueByCustomerResponse.builder()
-                        .customerId((UUID) row[0])
-                        .customerName((String) row[1])
-                        .totalRevenue((BigDecimal) row[2])
-                        .build())
-                .collect(Collectors.toList());
+
+        UUID businessId = BusinessContext.getBusinessId();
+
+        return reportCache.get(businessId, "revenue-by-customer", List.of(), () ->
+                revenueRollupRepository.revenueByCustomer(businessId));
     }
 
+    @Metered("smartinvoice.report.queries")
     public List<MonthlyRevenueResponse> monthlyRevenue() {
-        return reportRepository.monthlyRevenue(getBusinessId())
-                .stream()
-                .map(row -> MonthlyRevenueResponse.builder()
-                        .month(((java.sql.Timestamp) row[0])
-                                .toLocalDateTime()
-                                .toLocalDate())
-                        .revenue((BigDecimal) row[1])
-                        .build())
-                .collect(Collectors.toList());
+
+        UUID businessId = BusinessContext.getBusinessId();
+
+        return reportCache.get(businessId, "monthly", List.of(), () ->
+                revenueRollupRepository.monthlyRevenue(businessId));
+    }
+
+    @Transactional
+    @Metered("smartinvoice.report.queries")
+    public void rebuildRollups() {
+
+        UUID businessId = BusinessContext.getBusinessId();
+
+        revenueRollupRepository.rebuild(businessId);
+        eventPublisher.publishEvent(new InvoiceChangedEvent(businessId));
     }
 }
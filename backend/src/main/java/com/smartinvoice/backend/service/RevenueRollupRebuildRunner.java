@@ -0,0 +1,48 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.domain.Business;
+import com.smartinvoice.backend.repository.BusinessRepository;
+import com.smartinvoice.backend.repository.RevenueRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Backfills the revenue rollups of every business when the application is
+ * started with {@code --rebuild-rollups}. Each business is rebuilt in its own
+ * transaction, and the application exits once all of them are done instead
+ * of going on to serve requests.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevenueRollupRebuildRunner implements ApplicationRunner {
+
+    private static final String OPTION = "rebuild-rollups";
+
+    private final BusinessRepository businessRepository;
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+
+        for (Business business : businessRepository.findAll()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    revenueRollupRepository.rebuild(business.getId()));
+            log.info("Rebuilt revenue rollups for business {}", business.getId());
+        }
+
+        System.exit(SpringApplication.exit(applicationContext));
+    }
+}
@@ -0,0 +1,72 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.tenant.BusinessContext;
+import com.smartinvoice.backend.tenant.Tenant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Service-level meters. Every meter is tagged with the tier of the current
+ * tenant rather than its id, to keep the number of series bounded; calls
+ * made outside a request are tagged "none".
+ *
+ * Percentile histograms for the timers are enabled through the
+ * management.metrics.distribution properties.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServiceMetrics {
+
+    public static final String IDEMPOTENCY_CACHE_HIT = "cache_hit";
+    public static final String IDEMPOTENCY_STORED_HIT = "stored_hit";
+    public static final String IDEMPOTENCY_MISS = "miss";
+
+    private final MeterRegistry meterRegistry;
+
+    public Timer timer(String name, String operation, String outcome) {
+        return Timer.builder(name)
+                .tag("operation", operation)
+                .tag("tier", currentTier())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public void recordIdempotency(String result) {
+        Counter.builder("smartinvoice.idempotency.requests")
+                .tag("result", result)
+                .tag("tier", currentTier())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    static String outcome(Throwable error) {
+
+        if (error == null) {
+            return "success";
+        }
+
+        // Lost locking races, and retries that ran out after losing them
+        if (error instanceof ConcurrencyFailureException
+                || (error instanceof IllegalStateException
+                        && error.getCause() instanceof ConcurrencyFailureException)) {
+            return "conflict";
+        }
+
+        // Invalid input and business-rule refusals (not a draft, not payable)
+        if (error instanceof IllegalArgumentException
+                || error instanceof IllegalStateException) {
+            return "rejected";
+        }
+
+        return "error";
+    }
+
+    private static String currentTier() {
+        Tenant tenant = BusinessContext.getTenant();
+        return tenant == null ? "none" : tenant.getTier();
+    }
+}
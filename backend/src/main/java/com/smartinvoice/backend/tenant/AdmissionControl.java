@@ -0,0 +1,114 @@
+package com.smartinvoice.backend.tenant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tenant admission control. Every request takes a token from the
+ * tenant's bucket for its {@link RequestClass}; report requests must also
+ * get a slot in the report bulkhead, which caps concurrent reports both
+ * overall and per tenant so report queries can never hold every pooled
+ * connection. Rejected requests are counted on the tenant and answered with
+ * 429 and a Retry-After hint by {@link BusinessFilter}.
+ */
+@Component
+public class AdmissionControl {
+
+    private static final long BULKHEAD_RETRY_SECONDS = 1;
+
+    private final boolean enabled;
+    private final Map<RequestClass, Limit> limits = new EnumMap<>(RequestClass.class);
+    private final int maxConcurrentReportsPerTenant;
+    private final Semaphore reportSlots;
+
+    public AdmissionControl(
+            @Value("${smartinvoice.rate-limit.enabled:true}") boolean enabled,
+            @Value("${smartinvoice.rate-limit.reads.capacity:200}") long readCapacity,
+            @Value("${smartinvoice.rate-limit.reads.per-second:100}") double readsPerSecond,
+            @Value("${smartinvoice.rate-limit.writes.capacity:50}") long writeCapacity,
+            @Value("${smartinvoice.rate-limit.writes.per-second:20}") double writesPerSecond,
+            @Value("${smartinvoice.rate-limit.reports.capacity:10}") long reportCapacity,
+            @Value("${smartinvoice.rate-limit.reports.per-second:2}") double reportsPerSecond,
+            @Value("${smartinvoice.rate-limit.reports.max-concurrent:8}") int maxConcurrentReports,
+            @Value("${smartinvoice.rate-limit.reports.max-concurrent-per-tenant:2}") int maxConcurrentReportsPerTenant) {
+
+        this.enabled = enabled;
+        this.limits.put(RequestClass.READ, new Limit(readCapacity, readsPerSecond));
+        this.limits.put(RequestClass.WRITE, new Limit(writeCapacity, writesPerSecond));
+        this.limits.put(RequestClass.REPORT, new Limit(reportCapacity, reportsPerSecond));
+        this.maxConcurrentReportsPerTenant = maxConcurrentReportsPerTenant;
+        this.reportSlots = new Semaphore(maxConcurrentReports);
+    }
+
+    TenantLimits newLimits() {
+
+        long now = System.nanoTime();
+        Map<RequestClass, TokenBucket> buckets = new EnumMap<>(RequestClass.class);
+
+        limits.forEach((requestClass, limit) ->
+                buckets.put(requestClass, new TokenBucket(limit.capacity(), limit.perSecond(), now)));
+
+        return new TenantLimits(buckets, maxConcurrentReportsPerTenant);
+    }
+
+    /**
+     * Admits the request and returns 0, or rejects it and returns the number
+     * of seconds the client should wait before retrying. Every admitted
+     * request must be followed by {@link #release}.
+     */
+    public long admit(Tenant tenant, RequestClass requestClass) {
+
+        TenantLimits tenantLimits = tenant.getLimits();
+
+        if (!enabled || tenantLimits == null) {
+            return 0;
+        }
+
+        long waitNanos = tenantLimits.bucket(requestClass).tryAcquire(System.nanoTime());
+
+        if (waitNanos > 0) {
+            tenantLimits.recordRejection(requestClass);
+            // Round up to whole seconds
+            return TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1;
+        }
+
+        if (requestClass == RequestClass.REPORT && !acquireReportSlot(tenantLimits)) {
+            tenantLimits.recordRejection(requestClass);
+            return BULKHEAD_RETRY_SECONDS;
+        }
+
+        return 0;
+    }
+
+    public void release(Tenant tenant, RequestClass requestClass) {
+
+        TenantLimits tenantLimits = tenant.getLimits();
+
+        if (enabled && tenantLimits != null && requestClass == RequestClass.REPORT) {
+            tenantLimits.reportSlots().release();
+            reportSlots.release();
+        }
+    }
+
+    private boolean acquireReportSlot(TenantLimits tenantLimits) {
+
+        if (!tenantLimits.reportSlots().tryAcquire()) {
+            return false;
+        }
+
+        if (!reportSlots.tryAcquire()) {
+            tenantLimits.reportSlots().release();
+            return false;
+        }
+
+        return true;
+    }
+
+    private record Limit(long capacity, double perSecond) {
+    }
+}
@@ -1,18 +1,42 @@
 package com.smartinvoice.backend.tenant;
 
+import java.util.UUID;
+
+/**
+ * Tenant of the current request. Bound and cleared by {@link BusinessFilter}
+ * around each request, so it is safe on both pooled platform threads and
+ * per-request virtual threads. It is not inherited by other threads: work
+ * handed off to an executor must capture the id first.
+ */
 public class BusinessContext {
 
-    private static final ThreadLocal<String> businessIdHolder = new ThreadLocal<>();
+    private static final ThreadLocal<Tenant> tenantHolder = new ThreadLocal<>();
+
+    public static void set(Tenant tenant) {
+        tenantHolder.set(tenant);
+    }
+
+    /**
+     * Binds a business that has not been through {@link TenantResolver}, for
+     * jobs and tests that run outside a request.
+     */
+    public static void setBusinessId(UUID businessId) {
+        tenantHolder.set(new Tenant(businessId));
+    }
 
-    public static void setBusinessId(String businessId) {
-        businessIdHolder.set(businessId);
+    public static Tenant getTenant() {
+        return tenantHolder.get();
     }
 
-    public static String getBusinessId() {
-        return businessIdHolder.get();
+    public static UUID getBusinessId() {
+        Tenant tenant = tenantHolder.get();
+        if (tenant == null) {
+            throw new IllegalStateException("Missing X-Business-ID header");
+        }
+        return tenant.getBusinessId();
     }
 
     public static void clear() {
-        businessIdHolder.remove();
+        tenantHolder.remove();
     }
 }
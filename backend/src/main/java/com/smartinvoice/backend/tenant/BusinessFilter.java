@@ -2,12 +2,33 @@ package com.smartinvoice.backend.tenant;
 
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Resolves the X-Business-ID header once per request and binds the tenant to
+ * {@link BusinessContext}. Malformed ids are rejected with 400, unknown
+ * businesses with 403 and requests refused by {@link AdmissionControl} with
+ * 429 and a Retry-After header, before any controller or transaction is
+ * involved. Requests without the header pass through unbound.
+ *
+ * Admission is released when the request completes; for asynchronous
+ * requests such as streamed reports and exports that is when the async
+ * request completes, not when this filter returns.
+ */
 @Component
+@RequiredArgsConstructor
 public class BusinessFilter implements Filter {
 
+    private final TenantResolver tenantResolver;
+    private final AdmissionControl admissionControl;
+
     @Override
     public void doFilter(ServletRequest request,
                          ServletResponse response,
@@ -15,17 +36,102 @@ public class BusinessFilter implements Filter {
             throws IOException, ServletException {
 
         HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        String header = httpRequest.getHeader("X-Business-ID");
+
+        if (header == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        UUID businessId = parse(header);
+
+        if (businessId == null) {
+            httpResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "Malformed X-Business-ID header");
+            return;
+        }
 
-        String businessId = httpRequest.getHeader("X-Business-ID");
+        Tenant tenant = tenantResolver.resolve(businessId);
 
-        if (businessId != null) {
-            BusinessContext.setBusinessId(businessId);
+        if (tenant == null) {
+            httpResponse.sendError(HttpServletResponse.SC_FORBIDDEN, "Unknown business");
+            return;
         }
 
+        tenant.recordRequest();
+
+        RequestClass requestClass = RequestClass.of(httpRequest);
+        long retryAfter = admissionControl.admit(tenant, requestClass);
+
+        if (retryAfter > 0) {
+            httpResponse.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            httpResponse.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many requests");
+            return;
+        }
+
+        BusinessContext.set(tenant);
+
         try {
             chain.doFilter(request, response);
         } finally {
             BusinessContext.clear();
+
+            if (httpRequest.isAsyncStarted()) {
+                // Streaming responses keep running after the filter returns;
+                // their slot is held until the async request completes
+                releaseOnCompletion(httpRequest.getAsyncContext(), tenant, requestClass);
+            } else {
+                admissionControl.release(tenant, requestClass);
+            }
+        }
+    }
+
+    private void releaseOnCompletion(AsyncContext asyncContext, Tenant tenant, RequestClass requestClass) {
+
+        AtomicBoolean released = new AtomicBoolean();
+
+        asyncContext.addListener(new AsyncListener() {
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+                release();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                // Streams run without an async timeout and are capped by
+                // StreamingResponses, so this only fires for other async work
+                release();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                release();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                // A restarted request stays admitted; re-register for its completion
+                event.getAsyncContext().addListener(this);
+            }
+
+            private void release() {
+                if (released.compareAndSet(false, true)) {
+                    admissionControl.release(tenant, requestClass);
+                }
+            }
+        });
+    }
+
+    private static UUID parse(String header) {
+
+        try {
+            UUID businessId = UUID.fromString(header);
+            // UUID.fromString also accepts abbreviated forms such as "1-1-1-1-1"
+            return businessId.toString().equalsIgnoreCase(header) ? businessId : null;
+        } catch (IllegalArgumentException e) {
+            return null;
         }
     }
 }
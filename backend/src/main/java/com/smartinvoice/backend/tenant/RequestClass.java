@@ -0,0 +1,28 @@
+package com.smartinvoice.backend.tenant;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Endpoint classes that are rate limited separately, so a tenant exhausting
+ * one class can still use the others.
+ */
+public enum RequestClass {
+
+    READ,
+    WRITE,
+    REPORT;
+
+    public static RequestClass of(HttpServletRequest request) {
+
+        String uri = request.getRequestURI();
+
+        if (uri.startsWith("/api/reports") || uri.startsWith("/api/exports")) {
+            return REPORT;
+        }
+
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> READ;
+            default -> WRITE;
+        };
+    }
+}
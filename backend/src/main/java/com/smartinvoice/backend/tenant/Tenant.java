@@ -0,0 +1,55 @@
+package com.smartinvoice.backend.tenant;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A business that has been resolved and confirmed to exist. Instances are
+ * cached by {@link TenantResolver} and shared by all of the business's
+ * requests, so the request counter and the {@link AdmissionControl} limits
+ * apply across them. Tenants bound directly through
+ * {@link BusinessContext#setBusinessId} have no limits.
+ */
+public final class Tenant {
+
+    public static final String DEFAULT_TIER = "standard";
+
+    private final UUID businessId;
+    private final String tier;
+    private final TenantLimits limits;
+    private final LongAdder requests = new LongAdder();
+
+    Tenant(UUID businessId) {
+        this(businessId, DEFAULT_TIER, null);
+    }
+
+    Tenant(UUID businessId, String tier, TenantLimits limits) {
+        this.businessId = businessId;
+        this.tier = tier;
+        this.limits = limits;
+    }
+
+    public UUID getBusinessId() {
+        return businessId;
+    }
+
+    public String getTier() {
+        return tier;
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getRejectionCount(RequestClass requestClass) {
+        return limits == null ? 0 : limits.rejections(requestClass);
+    }
+
+    TenantLimits getLimits() {
+        return limits;
+    }
+
+    void recordRequest() {
+        requests.increment();
+    }
+}
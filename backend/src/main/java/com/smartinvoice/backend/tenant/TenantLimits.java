@@ -0,0 +1,42 @@
+package com.smartinvoice.backend.tenant;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission state of one tenant: a token bucket per request class, the
+ * tenant's share of the report bulkhead and its rejection counts.
+ */
+final class TenantLimits {
+
+    private final Map<RequestClass, TokenBucket> buckets;
+    private final Semaphore reportSlots;
+    private final Map<RequestClass, LongAdder> rejections = new EnumMap<>(RequestClass.class);
+
+    TenantLimits(Map<RequestClass, TokenBucket> buckets, int maxConcurrentReports) {
+        this.buckets = buckets;
+        this.reportSlots = new Semaphore(maxConcurrentReports);
+
+        for (RequestClass requestClass : RequestClass.values()) {
+            rejections.put(requestClass, new LongAdder());
+        }
+    }
+
+    TokenBucket bucket(RequestClass requestClass) {
+        return buckets.get(requestClass);
+    }
+
+    Semaphore reportSlots() {
+        return reportSlots;
+    }
+
+    void recordRejection(RequestClass requestClass) {
+        rejections.get(requestClass).increment();
+    }
+
+    long rejections(RequestClass requestClass) {
+        return rejections.get(requestClass).sum();
+    }
+}
@@ -0,0 +1,143 @@
+package com.smartinvoice.backend.tenant;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.smartinvoice.backend.repository.BusinessRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves business ids to {@link Tenant}s through a bounded cache, so only
+ * the first request of a business after it falls out of the cache hits the
+ * database. Unknown ids are not cached. Cached tenants are re-checked in the
+ * background once the refresh interval has passed, which keeps their request
+ * counters while dropping businesses that no longer exist.
+ *
+ * Tenants are assigned the tier configured for them in
+ * smartinvoice.tenants.tiers, as a list of businessId=tier pairs, and
+ * {@link Tenant#DEFAULT_TIER} otherwise.
+ *
+ * Each cached tenant's request count is published as the
+ * "smartinvoice.tenant.requests" counter, tagged with the business id, and
+ * its rejections as "smartinvoice.tenant.rejections", also tagged with the
+ * request class.
+ */
+@Component
+public class TenantResolver {
+
+    private static final String REQUESTS_METER = "smartinvoice.tenant.requests";
+    private static final String REJECTIONS_METER = "smartinvoice.tenant.rejections";
+
+    private final BusinessRepository businessRepository;
+    private final AdmissionControl admissionControl;
+    private final MeterRegistry meterRegistry;
+    private final Map<UUID, List<Meter>> tenantMeters = new ConcurrentHashMap<>();
+    private final Map<UUID, String> tiers = new HashMap<>();
+    private final LoadingCache<UUID, Tenant> tenants;
+
+    public TenantResolver(BusinessRepository businessRepository,
+            AdmissionControl admissionControl,
+            MeterRegistry meterRegistry,
+            @Value("${smartinvoice.tenants.cache.max-size:10000}") long maxSize,
+            @Value("${smartinvoice.tenants.cache.refresh:PT5M}") Duration refresh,
+            @Value("${smartinvoice.tenants.tiers:}") List<String> tiers) {
+
+        this.businessRepository = businessRepository;
+        this.admissionControl = admissionControl;
+        this.meterRegistry = meterRegistry;
+
+        for (String entry : tiers) {
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid tenant tier: " + entry);
+            }
+            this.tiers.put(UUID.fromString(parts[0].trim()), parts[1].trim());
+        }
+
+        this.tenants = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refresh)
+                .recordStats()
+                .<UUID, Tenant>removalListener((businessId, tenant, cause) -> {
+                    if (cause != RemovalCause.REPLACED) {
+                        unregister(businessId);
+                    }
+                })
+                .build(new CacheLoader<>() {
+
+                    @Override
+                    public Tenant load(UUID businessId) {
+                        return exists(businessId) ? register(new Tenant(businessId, tierOf(businessId), admissionControl.newLimits())) : null;
+                    }
+
+                    @Override
+                    public Tenant reload(UUID businessId, Tenant tenant) {
+                        return exists(businessId) ? tenant : null;
+                    }
+                });
+
+        CaffeineCacheMetrics.monitor(meterRegistry, tenants, "tenants");
+    }
+
+    /**
+     * Returns the tenant for the given business, or null if no such
+     * business exists.
+     */
+    public Tenant resolve(UUID businessId) {
+        return tenants.get(businessId);
+    }
+
+    private String tierOf(UUID businessId) {
+        return tiers.getOrDefault(businessId, Tenant.DEFAULT_TIER);
+    }
+
+    private boolean exists(UUID businessId) {
+        return businessRepository.existsById(businessId);
+    }
+
+    private Tenant register(Tenant tenant) {
+
+        String business = tenant.getBusinessId().toString();
+        List<Meter> meters = new ArrayList<>();
+
+        meters.add(FunctionCounter
+                .builder(REQUESTS_METER, tenant, Tenant::getRequestCount)
+                .tag("business", business)
+                .register(meterRegistry));
+
+        for (RequestClass requestClass : RequestClass.values()) {
+            meters.add(FunctionCounter
+                    .builder(REJECTIONS_METER, tenant, t -> t.getRejectionCount(requestClass))
+                    .tag("business", business)
+                    .tag("class", requestClass.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+
+        tenantMeters.put(tenant.getBusinessId(), meters);
+
+        return tenant;
+    }
+
+    private void unregister(UUID businessId) {
+
+        List<Meter> meters = tenantMeters.remove(businessId);
+
+        if (meters != null) {
+            meters.forEach(meterRegistry::remove);
+        }
+    }
+}
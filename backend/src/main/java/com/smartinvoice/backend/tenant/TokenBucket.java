@@ -0,0 +1,42 @@
+package com.smartinvoice.backend.tenant;
+
+/**
+ * Token bucket holding up to {@code capacity} tokens and refilled at a fixed
+ * rate. Time is passed in by the caller, in nanoseconds.
+ */
+final class TokenBucket {
+
+    private final long capacity;
+    private final long nanosPerToken;
+
+    private long available;
+    private long refilledAt;
+
+    TokenBucket(long capacity, double tokensPerSecond, long now) {
+        this.capacity = capacity;
+        this.nanosPerToken = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.available = capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * Takes a token if one is available and returns 0, otherwise returns the
+     * number of nanoseconds until the next token is added.
+     */
+    synchronized long tryAcquire(long now) {
+
+        long tokens = (now - refilledAt) / nanosPerToken;
+
+        if (tokens > 0) {
+            available = Math.min(capacity, available + tokens);
+            refilledAt = available == capacity ? now : refilledAt + tokens * nanosPerToken;
+        }
+
+        if (available > 0) {
+            available--;
+            return 0;
+        }
+
+        return nanosPerToken - (now - refilledAt);
+    }
+}
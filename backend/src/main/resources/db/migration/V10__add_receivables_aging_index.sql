@@ -0,0 +1,6 @@
+-- Aging report: open receivables per currency and customer, covering every
+-- column the aggregate reads so it can be answered from the index alone
+CREATE INDEX IF NOT EXISTS idx_invoices_receivable_business_currency_customer
+    ON invoices (business_id, currency, customer_id)
+    INCLUDE (due_date, total_amount, amount_paid)
+    WHERE status IN ('SENT', 'PARTIALLY_PAID', 'OVERDUE');
@@ -0,0 +1,21 @@
+-- Keyset pages of the outstanding and overdue reports, by remaining amount
+-- and by due date. Expressions must match ReceivableSort exactly.
+CREATE INDEX IF NOT EXISTS idx_invoices_outstanding_business_remaining
+    ON invoices (business_id, (total_amount - amount_paid), id)
+    WHERE amount_paid < total_amount;
+
+CREATE INDEX IF NOT EXISTS idx_invoices_outstanding_business_due_date
+    ON invoices (business_id, COALESCE(due_date, DATE '9999-12-31'), id)
+    WHERE amount_paid < total_amount;
+
+CREATE INDEX IF NOT EXISTS idx_invoices_overdue_business_remaining
+    ON invoices (business_id, (total_amount - amount_paid), id)
+    WHERE status = 'OVERDUE';
+
+CREATE INDEX IF NOT EXISTS idx_invoices_overdue_business_due_date_id
+    ON invoices (business_id, COALESCE(due_date, DATE '9999-12-31'), id)
+    WHERE status = 'OVERDUE';
+
+-- Superseded by the indexes above, which lead with the same columns
+DROP INDEX IF EXISTS idx_invoices_outstanding_business;
+DROP INDEX IF EXISTS idx_invoices_overdue_business_due_date;
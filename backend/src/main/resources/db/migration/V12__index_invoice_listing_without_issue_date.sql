@@ -0,0 +1,6 @@
+-- Keyset invoice listing. Invoices without an issue date sort last, so the
+-- keyset expression must match InvoiceJdbcRepository exactly
+CREATE INDEX IF NOT EXISTS idx_invoices_business_sort_issue_date_id
+    ON invoices (business_id, COALESCE(issue_date, DATE '0001-01-01') DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_invoices_business_issue_date_id;
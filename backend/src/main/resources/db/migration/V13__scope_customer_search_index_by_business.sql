@@ -0,0 +1,10 @@
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+-- Substring and typo-tolerant search within one business. Leading with
+-- business_id keeps each lookup to the tenant's own trigram postings.
+CREATE INDEX IF NOT EXISTS idx_customers_business_search_text_trgm
+    ON customers
+    USING gin (business_id, (lower(name || ' ' || coalesce(email, '') || ' ' || coalesce(phone, ''))) gin_trgm_ops);
+
+-- Superseded by idx_customers_business_search_text_trgm
+DROP INDEX IF EXISTS idx_customers_search_text_trgm;
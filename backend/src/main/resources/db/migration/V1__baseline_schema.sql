@@ -0,0 +1,106 @@
+-- Schema as it existed before versioned migrations were introduced. Databases
+-- that were created by Hibernate are baselined at version 1 and skip this file.
+
+DO $$
+BEGIN
+    CREATE TYPE invoice_status AS ENUM (
+        'DRAFT', 'SENT', 'PARTIALLY_PAID', 'PAID', 'OVERDUE', 'CANCELLED', 'REFUNDED'
+    );
+EXCEPTION
+    WHEN duplicate_object THEN NULL;
+END $$;
+
+DO $$
+BEGIN
+    CREATE TYPE payment_status AS ENUM (
+        'RECEIVED', 'FAILED', 'REFUNDED', 'REVERSED'
+    );
+EXCEPTION
+    WHEN duplicate_object THEN NULL;
+END $$;
+
+CREATE TABLE IF NOT EXISTS businesses (
+    id               UUID PRIMARY KEY,
+    name             VARCHAR(255) NOT NULL UNIQUE,
+    currency_default VARCHAR(3)   NOT NULL,
+    password         VARCHAR(255) NOT NULL,
+    created_at       TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS customers (
+    id          UUID PRIMARY KEY,
+    business_id UUID         NOT NULL,
+    name        VARCHAR(255) NOT NULL,
+    email       VARCHAR(255),
+    phone       VARCHAR(255),
+    created_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS invoices (
+    id             UUID PRIMARY KEY,
+    business_id    UUID           NOT NULL,
+    invoice_number VARCHAR(255)   NOT NULL,
+    customer_id    UUID           NOT NULL,
+    currency       VARCHAR(3)     NOT NULL,
+    status         invoice_status NOT NULL,
+    issue_date     DATE,
+    due_date       DATE,
+    subtotal       NUMERIC(19,4),
+    tax_total      NUMERIC(19,4),
+    discount_total NUMERIC(19,4),
+    total_amount   NUMERIC(19,4),
+    amount_paid    NUMERIC(19,4),
+    gst            INTEGER,
+    UNIQUE (business_id, invoice_number)
+);
+
+CREATE TABLE IF NOT EXISTS invoice_line_items (
+    id               UUID PRIMARY KEY,
+    invoice_id       UUID          NOT NULL REFERENCES invoices (id),
+    description      VARCHAR(255)  NOT NULL,
+    quantity         NUMERIC(19,4) NOT NULL,
+    unit_price       NUMERIC(19,4) NOT NULL,
+    tax_percent      NUMERIC(5,2),
+    discount_percent NUMERIC(5,2),
+    line_total       NUMERIC(19,4) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS payments (
+    id                UUID PRIMARY KEY,
+    business_id       UUID           NOT NULL,
+    invoice_id        UUID           NOT NULL,
+    payment_reference VARCHAR(255),
+    amount            NUMERIC(19,4)  NOT NULL,
+    currency          VARCHAR(3)     NOT NULL,
+    status            payment_status NOT NULL,
+    created_at        TIMESTAMP(6)   NOT NULL,
+    UNIQUE (business_id, payment_reference)
+);
+
+CREATE TABLE IF NOT EXISTS refunds (
+    id         UUID PRIMARY KEY,
+    payment_id UUID          NOT NULL,
+    amount     NUMERIC(19,4) NOT NULL,
+    reason     VARCHAR(255)  NOT NULL,
+    created_at TIMESTAMP(6)  NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS audit_logs (
+    id          UUID PRIMARY KEY,
+    business_id UUID         NOT NULL,
+    entity_type VARCHAR(255) NOT NULL,
+    entity_id   UUID         NOT NULL,
+    action      VARCHAR(255) NOT NULL,
+    old_value   JSONB,
+    new_value   JSONB,
+    created_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id              UUID PRIMARY KEY,
+    business_id     UUID         NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    response_body   JSONB,
+    created_at      TIMESTAMP(6) NOT NULL,
+    UNIQUE (business_id, idempotency_key)
+);
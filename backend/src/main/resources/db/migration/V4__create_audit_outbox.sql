@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS audit_outbox (
+    id          UUID PRIMARY KEY,
+    business_id UUID         NOT NULL,
+    entity_type VARCHAR(255) NOT NULL,
+    entity_id   UUID         NOT NULL,
+    action      VARCHAR(255) NOT NULL,
+    old_value   TEXT,
+    new_value   TEXT,
+    created_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_audit_outbox_created_at
+    ON audit_outbox (created_at);
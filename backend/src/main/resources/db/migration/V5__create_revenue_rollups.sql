@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS revenue_daily_rollups (
+    business_id UUID          NOT NULL,
+    day         DATE          NOT NULL,
+    amount      NUMERIC(19,4) NOT NULL DEFAULT 0,
+    PRIMARY KEY (business_id, day)
+);
+
+CREATE TABLE IF NOT EXISTS revenue_customer_rollups (
+    business_id UUID          NOT NULL,
+    customer_id UUID          NOT NULL,
+    amount      NUMERIC(19,4) NOT NULL DEFAULT 0,
+    PRIMARY KEY (business_id, customer_id)
+);
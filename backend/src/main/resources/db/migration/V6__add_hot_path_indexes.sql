@@ -0,0 +1,40 @@
+-- Revenue aggregation and rollup rebuilds
+CREATE INDEX IF NOT EXISTS idx_payments_business_status_created_at
+    ON payments (business_id, status, created_at);
+
+-- Payment listing per invoice
+CREATE INDEX IF NOT EXISTS idx_payments_invoice_business
+    ON payments (invoice_id, business_id);
+
+-- Refund validation per payment
+CREATE INDEX IF NOT EXISTS idx_refunds_payment_id
+    ON refunds (payment_id);
+
+-- Line item loading per invoice
+CREATE INDEX IF NOT EXISTS idx_invoice_line_items_invoice_id
+    ON invoice_line_items (invoice_id);
+
+-- Due date lookups, with a partial index over unpaid invoices for the overdue report
+CREATE INDEX IF NOT EXISTS idx_invoices_business_due_date
+    ON invoices (business_id, due_date);
+
+CREATE INDEX IF NOT EXISTS idx_invoices_unpaid_business_due_date
+    ON invoices (business_id, due_date)
+    WHERE status <> 'PAID';
+
+-- Outstanding report
+CREATE INDEX IF NOT EXISTS idx_invoices_outstanding_business
+    ON invoices (business_id)
+    WHERE amount_paid < total_amount;
+
+-- Keyset invoice listing
+CREATE INDEX IF NOT EXISTS idx_invoices_business_issue_date_id
+    ON invoices (business_id, issue_date DESC, id DESC);
+
+-- Customer listing
+CREATE INDEX IF NOT EXISTS idx_customers_business_id
+    ON customers (business_id);
+
+-- Idempotency key expiry
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at
+    ON idempotency_keys (created_at);
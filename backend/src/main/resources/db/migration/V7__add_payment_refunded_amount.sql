@@ -0,0 +1,11 @@
+ALTER TABLE payments
+    ADD COLUMN IF NOT EXISTS refunded_amount NUMERIC(19,4) NOT NULL DEFAULT 0;
+
+UPDATE payments p
+SET refunded_amount = r.total
+FROM (
+    SELECT payment_id, SUM(amount) AS total
+    FROM refunds
+    GROUP BY payment_id
+) r
+WHERE r.payment_id = p.id;
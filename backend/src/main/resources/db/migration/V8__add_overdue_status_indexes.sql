@@ -0,0 +1,9 @@
+-- Overdue sweep: due invoices that are still awaiting payment
+CREATE INDEX IF NOT EXISTS idx_invoices_awaiting_payment_due_date
+    ON invoices (due_date)
+    WHERE status IN ('SENT', 'PARTIALLY_PAID');
+
+-- Overdue report, now a status lookup maintained by the sweep
+CREATE INDEX IF NOT EXISTS idx_invoices_overdue_business_due_date
+    ON invoices (business_id, due_date)
+    WHERE status = 'OVERDUE';
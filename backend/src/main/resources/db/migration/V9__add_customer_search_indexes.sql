@@ -0,0 +1,14 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Customer listing and name prefix search. The "C" collation lets LIKE 'prefix%'
+-- and the keyset ORDER BY use the same index range.
+CREATE INDEX IF NOT EXISTS idx_customers_business_lower_name_id
+    ON customers (business_id, (lower(name) COLLATE "C"), id);
+
+-- Substring and typo-tolerant search across name, email and phone
+CREATE INDEX IF NOT EXISTS idx_customers_search_text_trgm
+    ON customers
+    USING gin ((lower(name || ' ' || coalesce(email, '') || ' ' || coalesce(phone, ''))) gin_trgm_ops);
+
+-- Superseded by idx_customers_business_lower_name_id
+DROP INDEX IF EXISTS idx_customers_business_id;
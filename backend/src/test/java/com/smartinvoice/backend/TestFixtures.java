@@ -0,0 +1,161 @@
+package com.smartinvoice.backend;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Inserts businesses, customers and invoices straight through JDBC, for tests
+ * that need rows in states the services would not produce or need many of
+ * them quickly. Invoice amounts are stored as given; nothing is priced.
+ */
+public class TestFixtures {
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public TestFixtures(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	public UUID insertBusiness(String namePrefix) {
+		UUID id = UUID.randomUUID();
+		insertBusiness(id, namePrefix);
+		return id;
+	}
+
+	public void insertBusiness(UUID id, String namePrefix) {
+		jdbcTemplate.update("""
+				INSERT INTO businesses (id, name, currency_default, password, created_at)
+				VALUES (?, ?, 'INR', 'secret', now())
+				""", id, namePrefix + "-" + id);
+	}
+
+	public UUID insertCustomer(UUID businessId, String name) {
+		UUID id = UUID.randomUUID();
+		insertCustomer(id, businessId, name);
+		return id;
+	}
+
+	public void insertCustomer(UUID id, UUID businessId, String name) {
+		insertCustomer(id, businessId, name, null, null);
+	}
+
+	public void insertCustomer(UUID id, UUID businessId, String name, String email, String phone) {
+		jdbcTemplate.update("""
+				INSERT INTO customers (id, business_id, name, email, phone, created_at)
+				VALUES (?, ?, ?, ?, ?, now())
+				""", id, businessId, name, email, phone);
+	}
+
+	/**
+	 * Inserts customers "Customer 1" to "Customer {count}" with matching
+	 * emails and phone numbers.
+	 */
+	public void insertNumberedCustomers(UUID businessId, int count) {
+		jdbcTemplate.update("""
+				INSERT INTO customers (id, business_id, name, email, phone, created_at)
+				SELECT gen_random_uuid(), ?, 'Customer ' || g, 'customer' || g || '@example.com',
+				       '+91 98' || lpad(g::text, 8, '0'), now()
+				FROM generate_series(1, ?) g
+				""", businessId, count);
+	}
+
+	public InvoiceRow invoice(UUID businessId, UUID customerId, String invoiceNumber) {
+		return new InvoiceRow(businessId, customerId, invoiceNumber);
+	}
+
+	/**
+	 * Removes a business and everything recorded under it.
+	 */
+	public void deleteBusiness(UUID businessId) {
+		jdbcTemplate.update("DELETE FROM revenue_daily_rollups WHERE business_id = ?", businessId);
+		jdbcTemplate.update("DELETE FROM revenue_customer_rollups WHERE business_id = ?", businessId);
+		jdbcTemplate.update("""
+				DELETE FROM refunds
+				WHERE payment_id IN (SELECT id FROM payments WHERE business_id = ?)
+				""", businessId);
+		jdbcTemplate.update("DELETE FROM payments WHERE business_id = ?", businessId);
+		jdbcTemplate.update("""
+				DELETE FROM invoice_line_items
+				WHERE invoice_id IN (SELECT id FROM invoices WHERE business_id = ?)
+				""", businessId);
+		jdbcTemplate.update("DELETE FROM invoices WHERE business_id = ?", businessId);
+		jdbcTemplate.update("DELETE FROM customers WHERE business_id = ?", businessId);
+		jdbcTemplate.update("DELETE FROM businesses WHERE id = ?", businessId);
+	}
+
+	/**
+	 * An invoice row, SENT in INR for 100 with nothing paid and due in 30 days
+	 * unless set otherwise. The issue date defaults to 30 days before the due
+	 * date.
+	 */
+	public class InvoiceRow {
+
+		private final UUID businessId;
+		private final UUID customerId;
+		private final String invoiceNumber;
+
+		private UUID id = UUID.randomUUID();
+		private String status = "SENT";
+		private String currency = "INR";
+		private LocalDate dueDate = LocalDate.now().plusDays(30);
+		private LocalDate issueDate;
+		private boolean issueDateSet;
+		private int total = 100;
+		private int paid;
+
+		private InvoiceRow(UUID businessId, UUID customerId, String invoiceNumber) {
+			this.businessId = businessId;
+			this.customerId = customerId;
+			this.invoiceNumber = invoiceNumber;
+		}
+
+		public InvoiceRow id(UUID id) {
+			this.id = id;
+			return this;
+		}
+
+		public InvoiceRow status(String status) {
+			this.status = status;
+			return this;
+		}
+
+		public InvoiceRow currency(String currency) {
+			this.currency = currency;
+			return this;
+		}
+
+		public InvoiceRow dueDate(LocalDate dueDate) {
+			this.dueDate = dueDate;
+			return this;
+		}
+
+		public InvoiceRow issueDate(LocalDate issueDate) {
+			this.issueDate = issueDate;
+			this.issueDateSet = true;
+			return this;
+		}
+
+		public InvoiceRow total(int total) {
+			this.total = total;
+			return this;
+		}
+
+		public InvoiceRow paid(int paid) {
+			this.paid = paid;
+			return this;
+		}
+
+		public UUID insert() {
+			jdbcTemplate.update("""
+					INSERT INTO invoices (id, business_id, invoice_number, customer_id, currency, status,
+					                      issue_date, due_date, gst, subtotal, tax_total, discount_total,
+					                      total_amount, amount_paid)
+					VALUES (?, ?, ?, ?, ?, CAST(? AS invoice_status), ?, ?, 0, ?, 0, 0, ?, ?)
+					""", id, businessId, invoiceNumber, customerId, currency, status,
+					issueDateSet ? issueDate : dueDate.minusDays(30), dueDate, total, total, paid);
+			return id;
+		}
+	}
+}
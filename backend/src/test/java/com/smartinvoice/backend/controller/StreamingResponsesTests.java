@@ -0,0 +1,113 @@
+package com.smartinvoice.backend.controller;
+
+import org.apache.catalina.connector.Connector;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(classes = StreamingResponsesTests.StreamingApplication.class,
+		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StreamingResponsesTests {
+
+	private static final long CONTAINER_ASYNC_TIMEOUT_MILLIS = 500;
+	private static final int CHUNKS = 8;
+
+	@LocalServerPort
+	private int port;
+
+	@Test
+	void streamOutlivesContainerAsyncTimeout() throws Exception {
+		HttpResponse<String> response = HttpClient.newHttpClient().send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/slow-stream")).build(),
+				HttpResponse.BodyHandlers.ofString());
+
+		// Takes about three times the container default, and still arrives whole
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.body()).isEqualTo("chunk\n".repeat(CHUNKS));
+	}
+
+	@Test
+	void streamFailsOnceMaxDurationIsExceeded() {
+		StreamingResponseBody body = new StreamingResponses(Duration.ofMillis(50)).capped(out -> {
+			out.write("first\n".getBytes(StandardCharsets.UTF_8));
+			pause(100);
+			out.write("second\n".getBytes(StandardCharsets.UTF_8));
+		});
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		assertThatThrownBy(() -> body.writeTo(out))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("exceeded");
+		assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("first\n");
+	}
+
+	private static void pause(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@SpringBootConfiguration
+	@EnableAutoConfiguration(exclude = {
+			DataSourceAutoConfiguration.class,
+			FlywayAutoConfiguration.class,
+			HibernateJpaAutoConfiguration.class})
+	@Import({StreamingResponses.class, SlowStreamController.class})
+	static class StreamingApplication {
+
+		// Stands in for Tomcat's 30 s default so the test does not take a minute
+		@Bean
+		WebServerFactoryCustomizer<TomcatServletWebServerFactory> shortAsyncTimeout() {
+			return factory -> factory.addConnectorCustomizers(
+					(Connector connector) -> connector.setAsyncTimeout(CONTAINER_ASYNC_TIMEOUT_MILLIS));
+		}
+	}
+
+	@RestController
+	static class SlowStreamController {
+
+		private final StreamingResponses streamingResponses;
+
+		SlowStreamController(StreamingResponses streamingResponses) {
+			this.streamingResponses = streamingResponses;
+		}
+
+		@GetMapping("/slow-stream")
+		StreamingResponseBody slowStream() {
+			return streamingResponses.capped(out -> {
+				for (int i = 0; i < CHUNKS; i++) {
+					out.write("chunk\n".getBytes(StandardCharsets.UTF_8));
+					out.flush();
+					pause(CONTAINER_ASYNC_TIMEOUT_MILLIS * 3 / CHUNKS);
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.smartinvoice.backend.profiling;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementProfilerTests {
+
+	@Test
+	void redactsLiterals() {
+		assertThat(StatementProfiler.redact(
+				"select * from invoices i1 where i1.invoice_number = 'INV-''7' and i1.total_amount > 12.50 limit 10"))
+				.isEqualTo("select * from invoices i1 where i1.invoice_number = ? and i1.total_amount > ? limit ?");
+	}
+
+	@Test
+	void countsStatementsOfCurrentRequest() {
+		StatementProfiler profiler = new StatementProfiler(true, Duration.ofSeconds(1));
+
+		StatementProfiler.RequestStatements request = profiler.begin();
+		profiler.afterQuery(execution(3), queries());
+		profiler.afterQuery(execution(1500), queries());
+		profiler.end();
+
+		profiler.afterQuery(execution(5), queries());
+
+		assertThat(request.getCount()).isEqualTo(2);
+		assertThat(request.getMillis()).isEqualTo(1503);
+		assertThat(profiler.getStatementCount()).isEqualTo(3);
+		assertThat(profiler.getSlowStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void ignoresStatementsWhileDisabled() {
+		StatementProfiler profiler = new StatementProfiler(true, Duration.ofSeconds(1));
+		profiler.setEnabled(false);
+
+		StatementProfiler.RequestStatements request = profiler.begin();
+		profiler.afterQuery(execution(2000), queries());
+		profiler.end();
+
+		assertThat(request.getCount()).isZero();
+		assertThat(profiler.getSlowStatementCount()).isZero();
+	}
+
+	private static ExecutionInfo execution(long elapsedMillis) {
+		ExecutionInfo execution = new ExecutionInfo();
+		execution.setElapsedTime(elapsedMillis);
+		return execution;
+	}
+
+	private static List<QueryInfo> queries() {
+		return List.of(new QueryInfo("select 1"));
+	}
+}
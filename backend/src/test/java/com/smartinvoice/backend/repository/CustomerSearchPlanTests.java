@@ -0,0 +1,120 @@
+package com.smartinvoice.backend.repository;
+
+import com.smartinvoice.backend.TestFixtures;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 500k customers across five businesses, seeded once and removed afterwards
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerSearchPlanTests {
+
+	private static final int BUSINESS_COUNT = 5;
+	private static final int CUSTOMERS_PER_BUSINESS = 100_000;
+	private static final int PAGE = 51;
+	private static final double TARGET_MILLIS = 20;
+
+	private static final Pattern EXECUTION_TIME = Pattern.compile("Execution Time: ([0-9.]+) ms");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<UUID> businessIds = new ArrayList<>();
+
+	private TestFixtures fixtures;
+
+	@BeforeAll
+	void setUp() {
+		fixtures = new TestFixtures(jdbcTemplate);
+
+		for (int b = 0; b < BUSINESS_COUNT; b++) {
+			UUID businessId = fixtures.insertBusiness("customer-plan");
+			businessIds.add(businessId);
+			fixtures.insertNumberedCustomers(businessId, CUSTOMERS_PER_BUSINESS);
+		}
+
+		jdbcTemplate.execute("ANALYZE customers");
+	}
+
+	@AfterAll
+	void tearDown() {
+		businessIds.forEach(fixtures::deleteBusiness);
+	}
+
+	@Test
+	void listingWalksNameIndexInOrder() {
+		String plan = explain(null, false);
+
+		assertThat(plan).contains("idx_customers_business_lower_name_id");
+		assertThat(plan).doesNotContain("Seq Scan on customers", "Sort");
+		assertThat(executionMillis(plan)).isLessThan(TARGET_MILLIS);
+	}
+
+	@Test
+	void nextPageSeeksPastCursor() {
+		String plan = explain(null, true);
+
+		assertThat(plan).contains("idx_customers_business_lower_name_id");
+		assertThat(plan).doesNotContain("Seq Scan on customers", "Sort");
+		assertThat(executionMillis(plan)).isLessThan(TARGET_MILLIS);
+	}
+
+	@Test
+	void shortPrefixWalksNameIndexInOrder() {
+		String plan = explain("cu", false);
+
+		assertThat(plan).contains("idx_customers_business_lower_name_id");
+		assertThat(plan).doesNotContain("Seq Scan on customers", "Sort");
+		assertThat(executionMillis(plan)).isLessThan(TARGET_MILLIS);
+	}
+
+	@Test
+	void fuzzySearchUsesTenantScopedTrigramIndex() {
+		for (String query : List.of("customer4242@", "98 0004 2", "custmer 42421")) {
+			String plan = explain(query, false);
+
+			assertThat(plan).contains("idx_customers_business_lower_name_id");
+			assertThat(plan).contains("idx_customers_business_search_text_trgm");
+			assertThat(plan).doesNotContain("Seq Scan on customers");
+			assertThat(executionMillis(plan)).as(query).isLessThan(TARGET_MILLIS);
+		}
+	}
+
+	private String explain(String query, boolean afterKey) {
+		MapSqlParameterSource params = new MapSqlParameterSource("businessId", businessIds.get(0))
+				.addValue("limit", PAGE)
+				.addValue("prefix", query + "%")
+				.addValue("contains", "%" + query + "%")
+				.addValue("query", query)
+				.addValue("afterName", "customer 50000")
+				.addValue("afterId", new UUID(0, 0));
+
+		String sql = "EXPLAIN (ANALYZE) " + CustomerJdbcRepository.pageSql(query, afterKey);
+		NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+
+		// The first run warms the buffers; the second is measured
+		namedJdbcTemplate.queryForList(sql, params, String.class);
+		return String.join("\n", namedJdbcTemplate.queryForList(sql, params, String.class));
+	}
+
+	private static double executionMillis(String plan) {
+		Matcher matcher = EXECUTION_TIME.matcher(plan);
+		assertThat(matcher.find()).as(plan).isTrue();
+		return Double.parseDouble(matcher.group(1));
+	}
+}
@@ -0,0 +1,128 @@
+package com.smartinvoice.backend.repository;
+
+import com.smartinvoice.backend.TestFixtures;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// One seeded data set is shared by every plan and removed afterwards
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReportQueryPlanTests {
+
+	private static final int BUSINESS_COUNT = 20;
+	private static final int INVOICES_PER_BUSINESS = 500;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<UUID> businessIds = new ArrayList<>();
+
+	private TestFixtures fixtures;
+
+	@BeforeAll
+	void setUp() {
+		fixtures = new TestFixtures(jdbcTemplate);
+
+		for (int b = 0; b < BUSINESS_COUNT; b++) {
+			UUID businessId = fixtures.insertBusiness("query-plan");
+			UUID customerId = fixtures.insertCustomer(businessId, "Query Plan Customer");
+			businessIds.add(businessId);
+
+			jdbcTemplate.update("""
+					INSERT INTO invoices (id, business_id, invoice_number, customer_id, currency, status,
+					                      issue_date, due_date, gst, subtotal, tax_total, discount_total,
+					                      total_amount, amount_paid)
+					SELECT gen_random_uuid(), ?, 'QP-' || g, ?, 'INR',
+					       CAST(CASE WHEN g % 4 = 0 THEN 'PAID'
+					                 WHEN g % 120 > 30 THEN 'OVERDUE'
+					                 ELSE 'SENT' END AS invoice_status),
+					       CURRENT_DATE - (g % 120), CURRENT_DATE - (g % 120) + 30, 0,
+					       100, 0, 0, 100, CASE WHEN g % 4 = 0 THEN 100 ELSE 0 END
+					FROM generate_series(1, ?) g
+					""", businessId, customerId, INVOICES_PER_BUSINESS);
+
+			jdbcTemplate.update("""
+					INSERT INTO revenue_daily_rollups (business_id, day, amount)
+					SELECT ?, CURRENT_DATE - g, 100
+					FROM generate_series(1, 365) g
+					""", businessId);
+		}
+
+		jdbcTemplate.execute("ANALYZE invoices");
+		jdbcTemplate.execute("ANALYZE customers");
+		jdbcTemplate.execute("ANALYZE revenue_daily_rollups");
+	}
+
+	@AfterAll
+	void tearDown() {
+		businessIds.forEach(fixtures::deleteBusiness);
+	}
+
+	@Test
+	void outstandingReportUsesIndex() {
+		String plan = explain(ReportJdbcRepository.OUTSTANDING_INVOICES);
+
+		assertThat(plan).contains("Index");
+		assertThat(plan).doesNotContain("Seq Scan on invoices");
+	}
+
+	@Test
+	void overdueReportUsesIndex() {
+		String plan = explain(ReportJdbcRepository.OVERDUE_INVOICES);
+
+		assertThat(plan).contains("Index");
+		assertThat(plan).doesNotContain("Seq Scan on invoices");
+	}
+
+	@Test
+	void receivablePagesUseIndex() {
+		for (ReceivableSort sort : ReceivableSort.values()) {
+			for (String report : List.of(ReportJdbcRepository.OUTSTANDING_INVOICES, ReportJdbcRepository.OVERDUE_INVOICES)) {
+				String plan = explain(report + ReportJdbcRepository.orderBy(sort) + " LIMIT 50");
+
+				assertThat(plan).contains("Index");
+				assertThat(plan).doesNotContain("Seq Scan on invoices");
+			}
+		}
+	}
+
+	@Test
+	void agingReportUsesIndex() {
+		String plan = explain(AgingReportRepository.AGING_REPORT
+				.replace(":asOf", "CURRENT_DATE")
+				.replace(":currency", "NULL"));
+
+		assertThat(plan).contains("Index");
+		assertThat(plan).doesNotContain("Seq Scan on invoices");
+	}
+
+	@Test
+	void revenueReportUsesRollupKey() {
+		String plan = String.join("\n", jdbcTemplate.queryForList(
+				"EXPLAIN " + RevenueRollupRepository.REVENUE_BETWEEN,
+				String.class,
+				businessIds.get(0),
+				LocalDate.now().minusDays(30),
+				LocalDate.now()));
+
+		assertThat(plan).contains("revenue_daily_rollups_pkey");
+		assertThat(plan).doesNotContain("Seq Scan on revenue_daily_rollups");
+	}
+
+	private String explain(String sql) {
+		String bound = sql.replace(":businessId", "'" + businessIds.get(0) + "'");
+		return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + bound, String.class));
+	}
+}
@@ -0,0 +1,106 @@
+package com.smartinvoice.backend.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class RevenueRollupRepositoryTests {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final RevenueRollupRepository repository = new RevenueRollupRepository(jdbcTemplate);
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void writesImmediatelyOutsideTransaction() {
+		UUID businessId = UUID.randomUUID();
+		LocalDate today = LocalDate.now();
+
+		repository.addDailyRevenue(businessId, today, BigDecimal.TEN);
+
+		verify(jdbcTemplate).update(contains("revenue_daily_rollups"), eq(businessId), eq(businessId), eq(today), eq(BigDecimal.TEN));
+	}
+
+	@Test
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	void defersIncrementsUntilCommitInKeyOrder() {
+		UUID businessId = UUID.randomUUID();
+		UUID customerId = UUID.randomUUID();
+		LocalDate today = LocalDate.now();
+		LocalDate yesterday = today.minusDays(1);
+
+		TransactionSynchronizationManager.initSynchronization();
+
+		repository.addDailyRevenue(businessId, today, new BigDecimal("10"));
+		repository.addDailyRevenue(businessId, yesterday, new BigDecimal("5"));
+		repository.addDailyRevenue(businessId, today, new BigDecimal("-3"));
+		repository.addCustomerRevenue(businessId, customerId, new BigDecimal("12"));
+
+		// Nothing is written, and no rollup row locked, while the transaction does its work
+		verifyNoInteractions(jdbcTemplate);
+
+		TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+		ArgumentCaptor<Collection> days = ArgumentCaptor.forClass(Collection.class);
+		verify(jdbcTemplate).batchUpdate(contains("revenue_daily_rollups"), days.capture(), anyInt(),
+				any(ParameterizedPreparedStatementSetter.class));
+		assertThat((Collection<Map.Entry<?, BigDecimal>>) days.getValue())
+				.extracting(Map.Entry::getValue)
+				.containsExactly(new BigDecimal("5"), new BigDecimal("7"));
+
+		ArgumentCaptor<Collection> customers = ArgumentCaptor.forClass(Collection.class);
+		verify(jdbcTemplate).batchUpdate(contains("revenue_customer_rollups"), customers.capture(), anyInt(),
+				any(ParameterizedPreparedStatementSetter.class));
+		assertThat((Collection<Map.Entry<?, BigDecimal>>) customers.getValue())
+				.extracting(Map.Entry::getValue)
+				.containsExactly(new BigDecimal("12"));
+	}
+
+	@Test
+	void discardsIncrementsOfRolledBackTransaction() {
+		TransactionSynchronizationManager.initSynchronization();
+
+		repository.addDailyRevenue(UUID.randomUUID(), LocalDate.now(), BigDecimal.ONE);
+		TransactionSynchronizationUtils.invokeAfterCompletion(
+				TransactionSynchronizationManager.getSynchronizations(),
+				TransactionSynchronization.STATUS_ROLLED_BACK);
+		TransactionSynchronizationManager.clearSynchronization();
+
+		// A later transaction on this thread starts from an empty set of increments
+		TransactionSynchronizationManager.initSynchronization();
+		UUID businessId = UUID.randomUUID();
+		repository.addCustomerRevenue(businessId, UUID.randomUUID(), BigDecimal.TEN);
+		TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+		verify(jdbcTemplate, never()).batchUpdate(contains("revenue_daily_rollups"), any(Collection.class), anyInt(),
+				any(ParameterizedPreparedStatementSetter.class));
+		verify(jdbcTemplate).batchUpdate(contains("revenue_customer_rollups"), any(Collection.class), eq(1),
+				any(ParameterizedPreparedStatementSetter.class));
+	}
+}
@@ -0,0 +1,123 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.TestFixtures;
+import com.smartinvoice.backend.dto.AgingBucketsResponse;
+import com.smartinvoice.backend.dto.AgingReportResponse;
+import com.smartinvoice.backend.tenant.BusinessContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AgingReportTests {
+
+	private static final LocalDate AS_OF = LocalDate.of(2026, 6, 30);
+
+	@Autowired
+	private ReportService reportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final UUID businessId = UUID.randomUUID();
+	private final UUID acme = UUID.randomUUID();
+	private final UUID globex = UUID.randomUUID();
+
+	private int sequence;
+
+	private TestFixtures fixtures;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(jdbcTemplate);
+		fixtures.insertBusiness(businessId, "aging");
+		fixtures.insertCustomer(acme, businessId, "Acme");
+		fixtures.insertCustomer(globex, businessId, "Globex");
+
+		// Acme: one invoice in every bucket, one partially paid
+		insertInvoice(acme, "SENT", AS_OF.plusDays(10), "INR", 100, 0);
+		insertInvoice(acme, "SENT", AS_OF, "INR", 50, 0);
+		insertInvoice(acme, "PARTIALLY_PAID", AS_OF.minusDays(1), "INR", 100, 40);
+		insertInvoice(acme, "OVERDUE", AS_OF.minusDays(45), "INR", 200, 0);
+		insertInvoice(acme, "OVERDUE", AS_OF.minusDays(90), "INR", 300, 0);
+		insertInvoice(acme, "OVERDUE", AS_OF.minusDays(91), "INR", 400, 0);
+
+		// Globex: a second currency
+		insertInvoice(globex, "OVERDUE", AS_OF.minusDays(31), "INR", 70, 0);
+		insertInvoice(globex, "SENT", AS_OF.minusDays(5), "USD", 25, 0);
+
+		// Not receivable
+		insertInvoice(acme, "PAID", AS_OF.minusDays(200), "INR", 500, 500);
+		insertInvoice(acme, "DRAFT", AS_OF.minusDays(200), "INR", 500, 0);
+		insertInvoice(acme, "CANCELLED", AS_OF.minusDays(200), "INR", 500, 0);
+
+		BusinessContext.setBusinessId(businessId);
+	}
+
+	@AfterEach
+	void tearDown() {
+		BusinessContext.clear();
+	}
+
+	@Test
+	void bucketsOpenInvoicesPerCustomerAndCurrency() {
+		AgingReportResponse report = reportService.aging(AS_OF, null);
+
+		assertThat(report.getAsOf()).isEqualTo(AS_OF);
+		assertThat(report.getTotals()).extracting(AgingBucketsResponse::getCurrency)
+				.containsExactly("INR", "USD");
+		assertThat(report.getCustomers()).extracting(AgingBucketsResponse::getCustomerName)
+				.containsExactly("Acme", "Globex", "Globex");
+
+		AgingBucketsResponse acmeRow = report.getCustomers().get(0);
+		assertThat(acmeRow.getInvoiceCount()).isEqualTo(6);
+		assertThat(acmeRow.getCurrent()).isEqualByComparingTo("150");
+		assertThat(acmeRow.getDays1To30()).isEqualByComparingTo("60");
+		assertThat(acmeRow.getDays31To60()).isEqualByComparingTo("200");
+		assertThat(acmeRow.getDays61To90()).isEqualByComparingTo("300");
+		assertThat(acmeRow.getOver90()).isEqualByComparingTo("400");
+		assertThat(acmeRow.getTotal()).isEqualByComparingTo("1110");
+
+		AgingBucketsResponse inrTotal = report.getTotals().get(0);
+		assertThat(inrTotal.getCustomerId()).isNull();
+		assertThat(inrTotal.getInvoiceCount()).isEqualTo(7);
+		assertThat(inrTotal.getDays31To60()).isEqualByComparingTo("270");
+		assertThat(inrTotal.getTotal()).isEqualByComparingTo("1180");
+
+		AgingBucketsResponse usdTotal = report.getTotals().get(1);
+		assertThat(usdTotal.getDays1To30()).isEqualByComparingTo("25");
+		assertThat(usdTotal.getTotal()).isEqualByComparingTo("25");
+	}
+
+	@Test
+	void filtersByCurrencyAndAgesFromAsOfDate() {
+		AgingReportResponse report = reportService.aging(AS_OF.plusDays(60), "usd");
+
+		assertThat(report.getTotals()).singleElement().satisfies(total -> {
+			assertThat(total.getCurrency()).isEqualTo("USD");
+			assertThat(total.getCurrent()).isEqualByComparingTo("0");
+			assertThat(total.getDays61To90()).isEqualByComparingTo("25");
+		});
+		assertThat(report.getCustomers()).extracting(AgingBucketsResponse::getCustomerId)
+				.containsExactly(globex);
+	}
+
+	private void insertInvoice(UUID customerId, String status, LocalDate dueDate,
+			String currency, int total, int paid) {
+		fixtures.invoice(businessId, customerId, "AGE-" + sequence++)
+				.status(status)
+				.dueDate(dueDate)
+				.currency(currency)
+				.total(total)
+				.paid(paid)
+				.insert();
+	}
+}
@@ -0,0 +1,91 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.domain.AuditLog;
+import com.smartinvoice.backend.repository.AuditLogJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditWriterTests {
+
+	private AuditLogJdbcRepository repository;
+	private AuditWriter writer;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(AuditLogJdbcRepository.class);
+
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+		// Not started, so enqueue writes on the calling thread
+		writer = new AuditWriter(repository, transactionManager, 10, 10,
+				Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofMillis(5));
+	}
+
+	@Test
+	void writesBatchToAuditLogs() {
+		List<AuditLog> logs = List.of(auditLog(), auditLog());
+
+		writer.enqueue(logs);
+
+		verify(repository).insertAll(logs);
+		verify(repository, never()).insertOutbox(anyList());
+	}
+
+	@Test
+	void spillsBatchToOutboxWhenAuditLogsKeepFailing() {
+		doThrow(new DataAccessResourceFailureException("audit_logs unavailable"))
+				.when(repository).insertAll(anyList());
+
+		List<AuditLog> logs = List.of(auditLog(), auditLog());
+
+		writer.enqueue(logs);
+
+		verify(repository, times(3)).insertAll(logs);
+		verify(repository).insertOutbox(logs);
+	}
+
+	@Test
+	void retriesSpillUntilOutboxAcceptsBatch() {
+		doThrow(new DataAccessResourceFailureException("audit_logs unavailable"))
+				.when(repository).insertAll(anyList());
+		doThrow(new DataAccessResourceFailureException("database unavailable"))
+				.doThrow(new DataAccessResourceFailureException("database unavailable"))
+				.doNothing()
+				.when(repository).insertOutbox(anyList());
+
+		List<AuditLog> logs = List.of(auditLog());
+
+		writer.enqueue(logs);
+
+		verify(repository, times(3)).insertOutbox(logs);
+	}
+
+	private static AuditLog auditLog() {
+		AuditLog log = new AuditLog();
+		log.setId(UUID.randomUUID());
+		log.setBusinessId(UUID.randomUUID());
+		log.setEntityType("INVOICE");
+		log.setEntityId(UUID.randomUUID());
+		log.setAction("CREATED");
+		log.setCreatedAt(LocalDateTime.now());
+		return log;
+	}
+}
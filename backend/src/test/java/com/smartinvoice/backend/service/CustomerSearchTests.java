@@ -0,0 +1,96 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.TestFixtures;
+import com.smartinvoice.backend.dto.CustomerResponse;
+import com.smartinvoice.backend.dto.PageResponse;
+import com.smartinvoice.backend.tenant.BusinessContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CustomerSearchTests {
+
+	private static final int SEEDED_CUSTOMERS = 2000;
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final UUID businessId = UUID.randomUUID();
+
+	private TestFixtures fixtures;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(jdbcTemplate);
+		fixtures.insertBusiness(businessId, "customer-search");
+		fixtures.insertNumberedCustomers(businessId, SEEDED_CUSTOMERS);
+
+		insertCustomer("Acme | Traders", "accounts@acme.test", "+91 22 5550 1234");
+		insertCustomer("acme Logistics", "ops@acme-logistics.test", null);
+		insertCustomer("Zenith Textiles", "billing@zenith.test", "+91 80 4444 9876");
+
+		jdbcTemplate.execute("ANALYZE customers");
+
+		BusinessContext.setBusinessId(businessId);
+	}
+
+	@AfterEach
+	void tearDown() {
+		BusinessContext.clear();
+	}
+
+	@Test
+	void pagesThroughEveryCustomerInNameOrder() {
+		List<String> names = new ArrayList<>();
+		String cursor = null;
+
+		do {
+			PageResponse<CustomerResponse> page = customerService.search(null, cursor, 500);
+			page.getItems().forEach(c -> names.add(c.getName()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertThat(names).hasSize(SEEDED_CUSTOMERS + 3).doesNotHaveDuplicates();
+		assertThat(names.subList(0, 2)).containsExactly("acme Logistics", "Acme | Traders");
+	}
+
+	@Test
+	void matchesNamePrefixCaseInsensitively() {
+		assertThat(names(customerService.search("ACM", null, 10)))
+				.containsExactly("acme Logistics", "Acme | Traders");
+		assertThat(names(customerService.search("a", null, 10)))
+				.containsExactly("acme Logistics", "Acme | Traders");
+	}
+
+	@Test
+	void matchesEmailAndPhoneSubstrings() {
+		assertThat(names(customerService.search("billing@zen", null, 10))).containsExactly("Zenith Textiles");
+		assertThat(names(customerService.search("4444 98", null, 10))).containsExactly("Zenith Textiles");
+	}
+
+	@Test
+	void toleratesMisspelledNames() {
+		assertThat(names(customerService.search("zenit textles", null, 10))).contains("Zenith Textiles");
+	}
+
+	private void insertCustomer(String name, String email, String phone) {
+		fixtures.insertCustomer(UUID.randomUUID(), businessId, name, email, phone);
+	}
+
+	private static List<String> names(PageResponse<CustomerResponse> page) {
+		return page.getItems().stream().map(CustomerResponse::getName).toList();
+	}
+}
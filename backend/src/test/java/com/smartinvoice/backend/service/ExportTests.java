@@ -0,0 +1,144 @@
+package com.smartinvoice.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.smartinvoice.backend.TestFixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartinvoice.backend.repository.ExportDataset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ExportTests {
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@TempDir
+	private Path directory;
+
+	private final UUID businessId = UUID.randomUUID();
+	private final UUID invoiceId = UUID.randomUUID();
+	private final UUID paymentId = UUID.randomUUID();
+
+	@BeforeEach
+	void setUp() {
+		TestFixtures fixtures = new TestFixtures(jdbcTemplate);
+		UUID otherBusinessId = fixtures.insertBusiness("export");
+		fixtures.insertBusiness(businessId, "export");
+
+		fixtures.invoice(businessId, fixtures.insertCustomer(businessId, "Export Customer"), "EXP-1")
+				.id(invoiceId)
+				.issueDate(LocalDate.now())
+				.paid(100)
+				.insert();
+		fixtures.invoice(otherBusinessId, fixtures.insertCustomer(otherBusinessId, "Export Customer"), "EXP-OTHER")
+				.issueDate(LocalDate.now())
+				.paid(100)
+				.insert();
+
+		jdbcTemplate.update("""
+				INSERT INTO invoice_line_items (id, invoice_id, description, quantity, unit_price,
+				                                tax_percent, discount_percent, line_total)
+				VALUES (gen_random_uuid(), ?, 'Consulting, "senior"', 1, 60, 0, 0, 60),
+				       (gen_random_uuid(), ?, 'Hosting', 2, 20, 0, 0, 40)
+				""", invoiceId, invoiceId);
+
+		jdbcTemplate.update("""
+				INSERT INTO payments (id, business_id, invoice_id, payment_reference, amount,
+				                      refunded_amount, currency, status, created_at)
+				VALUES (?, ?, ?, 'EXP-PAY-1', 100, 25, 'INR', CAST('RECEIVED' AS payment_status), now())
+				""", paymentId, businessId, invoiceId);
+
+		jdbcTemplate.update("""
+				INSERT INTO refunds (id, payment_id, amount, reason, created_at)
+				VALUES (gen_random_uuid(), ?, 25, 'Partial refund', now())
+				""", paymentId);
+	}
+
+	@Test
+	void exportsEveryDatasetOfTheBusinessAsNdjson() throws IOException {
+		exportService.exportAll(businessId, ExportFormat.NDJSON, directory);
+
+		List<JsonNode> invoices = readNdjson("invoices.ndjson.gz");
+		List<JsonNode> lineItems = readNdjson("line-items.ndjson.gz");
+		List<JsonNode> payments = readNdjson("payments.ndjson.gz");
+		List<JsonNode> refunds = readNdjson("refunds.ndjson.gz");
+
+		assertThat(invoices).singleElement().satisfies(invoice -> {
+			assertThat(invoice.get("invoice_number").asText()).isEqualTo("EXP-1");
+			assertThat(invoice.get("status").asText()).isEqualTo("SENT");
+			assertThat(invoice.get("due_date").asText()).matches("\\d{4}-\\d{2}-\\d{2}");
+			assertThat(invoice.get("total_amount").decimalValue()).isEqualByComparingTo("100");
+		});
+		assertThat(lineItems).hasSize(2)
+				.allSatisfy(item -> assertThat(item.get("invoice_id").asText()).isEqualTo(invoiceId.toString()));
+		assertThat(payments).singleElement()
+				.satisfies(payment -> assertThat(payment.get("refunded_amount").decimalValue()).isEqualByComparingTo("25"));
+		assertThat(refunds).singleElement()
+				.satisfies(refund -> assertThat(refund.get("payment_id").asText()).isEqualTo(paymentId.toString()));
+
+		try (var files = Files.list(directory)) {
+			assertThat(files.map(path -> path.getFileName().toString()))
+					.containsExactlyInAnyOrder("invoices.ndjson.gz", "line-items.ndjson.gz",
+							"payments.ndjson.gz", "refunds.ndjson.gz");
+		}
+	}
+
+	@Test
+	void streamsCsvWithHeaderAndQuotedValues() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		exportService.export(businessId, ExportDataset.LINE_ITEMS, ExportFormat.CSV, out);
+
+		String csv = gunzip(new ByteArrayInputStream(out.toByteArray()));
+
+		assertThat(csv).startsWith("id,invoice_id,description,quantity,unit_price,tax_percent,discount_percent,line_total\r\n");
+		assertThat(csv).contains(",\"Consulting, \"\"senior\"\"\",");
+		assertThat(csv.split("\r\n")).hasSize(3);
+	}
+
+	private List<JsonNode> readNdjson(String fileName) throws IOException {
+		List<JsonNode> rows = new ArrayList<>();
+
+		try (InputStream in = Files.newInputStream(directory.resolve(fileName))) {
+			for (String line : gunzip(in).split("\n")) {
+				if (!line.isBlank()) {
+					rows.add(objectMapper.readTree(line));
+				}
+			}
+		}
+
+		return rows;
+	}
+
+	private static String gunzip(InputStream in) throws IOException {
+		try (GZIPInputStream gzip = new GZIPInputStream(in)) {
+			return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,210 @@
+package com.smartinvoice.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartinvoice.backend.domain.Business;
+import com.smartinvoice.backend.domain.Customer;
+import com.smartinvoice.backend.dto.BulkInvoiceItemResult;
+import com.smartinvoice.backend.dto.BulkInvoiceResponse;
+import com.smartinvoice.backend.dto.CreateInvoiceRequest;
+import com.smartinvoice.backend.repository.BusinessRepository;
+import com.smartinvoice.backend.repository.CustomerRepository;
+import com.smartinvoice.backend.tenant.BusinessContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class InvoiceBulkTests {
+
+	@Autowired
+	private InvoiceBulkService invoiceBulkService;
+
+	@Autowired
+	private InvoiceService invoiceService;
+
+	@Autowired
+	private BusinessRepository businessRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private UUID businessId;
+	private UUID customerId;
+
+	@BeforeEach
+	void setUp() {
+		Business business = new Business();
+		business.setName("bulk-" + UUID.randomUUID());
+		business.setCurrency("INR");
+		business.setPassword("secret");
+		businessId = businessRepository.save(business).getId();
+
+		Customer customer = new Customer();
+		customer.setBusinessId(businessId);
+		customer.setName("Bulk Customer");
+		customerId = customerRepository.save(customer).getId();
+
+		BusinessContext.setBusinessId(businessId);
+	}
+
+	@AfterEach
+	void tearDown() {
+		BusinessContext.clear();
+	}
+
+	@Test
+	void insertsPricedInvoicesWithLineItems() {
+		List<CreateInvoiceRequest> requests = new ArrayList<>();
+		for (int i = 0; i < 1200; i++) {
+			requests.add(invoiceRequest("BULK-" + i, customerId));
+		}
+
+		BulkInvoiceResponse response = invoiceBulkService.createInvoices(requests);
+
+		assertThat(response.getTotal()).isEqualTo(1200);
+		assertThat(response.getCreated()).isEqualTo(1200);
+		assertThat(response.getFailed()).isZero();
+		assertThat(response.getResults()).allSatisfy(result -> {
+			assertThat(result.getInvoiceId()).isNotNull();
+			assertThat(result.getError()).isNull();
+		});
+
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM invoices WHERE business_id = ?", Integer.class, businessId))
+				.isEqualTo(1200);
+		assertThat(jdbcTemplate.queryForObject("""
+				SELECT COUNT(*) FROM invoice_line_items li
+				JOIN invoices i ON i.id = li.invoice_id
+				WHERE i.business_id = ?
+				""", Integer.class, businessId))
+				.isEqualTo(2400);
+
+		// 2 x 10.00 + 1 x 5.00, plus 18% tax on the first line
+		assertThat(invoiceService.getInvoiceById(response.getResults().get(0).getInvoiceId()).getTotalAmount())
+				.isEqualByComparingTo("28.60");
+	}
+
+	@Test
+	void reportsPerRowErrorsWithoutFailingTheBatch() {
+		CreateInvoiceRequest missingLines = invoiceRequest("BULK-INVALID", customerId);
+		missingLines.setLineItems(List.of());
+
+		BulkInvoiceResponse response = invoiceBulkService.createInvoices(List.of(
+				invoiceRequest("BULK-OK-1", customerId),
+				missingLines,
+				invoiceRequest("BULK-UNKNOWN-CUSTOMER", UUID.randomUUID()),
+				invoiceRequest("BULK-OK-2", customerId)));
+
+		assertThat(response.getCreated()).isEqualTo(2);
+		assertThat(response.getFailed()).isEqualTo(2);
+		assertThat(response.getResults()).extracting(BulkInvoiceItemResult::getError)
+				.containsExactly(null, "lineItems must not be empty", "Customer not found", null);
+	}
+
+	@Test
+	void rejectsDuplicatesWithinTheImport() {
+		BulkInvoiceResponse response = invoiceBulkService.createInvoices(List.of(
+				invoiceRequest("BULK-DUP", customerId),
+				invoiceRequest("BULK-DUP", customerId)));
+
+		assertThat(response.getResults()).extracting(BulkInvoiceItemResult::getError)
+				.containsExactly(null, "Duplicate invoice number in import");
+	}
+
+	@Test
+	void rejectedRowDoesNotClaimItsInvoiceNumber() {
+		BulkInvoiceResponse response = invoiceBulkService.createInvoices(List.of(
+				invoiceRequest("BULK-RETRY", UUID.randomUUID()),
+				invoiceRequest("BULK-RETRY", customerId)));
+
+		assertThat(response.getResults()).extracting(BulkInvoiceItemResult::getError)
+				.containsExactly("Customer not found", null);
+		assertThat(response.getCreated()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsNumbersThatAlreadyExist() {
+		invoiceService.createInvoice(invoiceRequest("BULK-EXISTING", customerId));
+
+		BulkInvoiceResponse response = invoiceBulkService.createInvoices(List.of(
+				invoiceRequest("BULK-EXISTING", customerId),
+				invoiceRequest("BULK-NEW", customerId)));
+
+		assertThat(response.getResults()).extracting(BulkInvoiceItemResult::getError)
+				.containsExactly("Invoice number already exists", null);
+	}
+
+	@Test
+	void reportsDatabaseRejectionsWithoutDatabaseDetails() {
+		// Passes validation but does not fit the currency column
+		CreateInvoiceRequest badCurrency = invoiceRequest("BULK-BAD-CURRENCY", customerId);
+		badCurrency.setCurrency("RUPEES");
+
+		BulkInvoiceResponse response = invoiceBulkService.createInvoices(List.of(
+				invoiceRequest("BULK-BESIDE-BAD-1", customerId),
+				badCurrency,
+				invoiceRequest("BULK-BESIDE-BAD-2", customerId)));
+
+		assertThat(response.getCreated()).isEqualTo(2);
+		assertThat(response.getResults()).extracting(BulkInvoiceItemResult::getError)
+				.containsExactly(null, "Invoice contains invalid values", null);
+	}
+
+	@Test
+	void importsNdjsonAndReportsMalformedLines() throws Exception {
+		String ndjson = objectMapper.writeValueAsString(invoiceRequest("BULK-NDJSON-1", customerId)) + "\n"
+				+ "{not json\n"
+				+ "\n"
+				+ objectMapper.writeValueAsString(invoiceRequest("BULK-NDJSON-2", customerId)) + "\n";
+
+		BulkInvoiceResponse response = invoiceBulkService.importNdjson(new BufferedReader(new StringReader(ndjson)));
+
+		assertThat(response.getTotal()).isEqualTo(3);
+		assertThat(response.getCreated()).isEqualTo(2);
+		assertThat(response.getResults()).extracting(BulkInvoiceItemResult::getInvoiceNumber)
+				.containsExactly("BULK-NDJSON-1", null, "BULK-NDJSON-2");
+		assertThat(response.getResults().get(1).getError()).startsWith("Malformed JSON");
+	}
+
+	private static CreateInvoiceRequest invoiceRequest(String invoiceNumber, UUID customerId) {
+		CreateInvoiceRequest.LineItemRequest taxed = new CreateInvoiceRequest.LineItemRequest();
+		taxed.setDescription("Hours");
+		taxed.setQuantity(new BigDecimal("2"));
+		taxed.setUnitPrice(new BigDecimal("10.00"));
+		taxed.setTaxPercent(new BigDecimal("18"));
+
+		CreateInvoiceRequest.LineItemRequest plain = new CreateInvoiceRequest.LineItemRequest();
+		plain.setDescription("Materials");
+		plain.setQuantity(BigDecimal.ONE);
+		plain.setUnitPrice(new BigDecimal("5.00"));
+
+		CreateInvoiceRequest request = new CreateInvoiceRequest();
+		request.setInvoiceNumber(invoiceNumber);
+		request.setCustomerId(customerId);
+		request.setCurrency("INR");
+		request.setIssueDate(LocalDate.now());
+		request.setDueDate(LocalDate.now().plusDays(30));
+		request.setGst(0);
+		request.setLineItems(List.of(taxed, plain));
+		return request;
+	}
+}
@@ -0,0 +1,85 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.TestFixtures;
+import com.smartinvoice.backend.dto.InvoiceSummaryResponse;
+import com.smartinvoice.backend.dto.PageResponse;
+import com.smartinvoice.backend.repository.InvoiceFilter;
+import com.smartinvoice.backend.tenant.BusinessContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class InvoicePagingTests {
+
+	private static final LocalDate TODAY = LocalDate.now();
+
+	@Autowired
+	private InvoiceService invoiceService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final UUID businessId = UUID.randomUUID();
+	private final UUID customerId = UUID.randomUUID();
+
+	private TestFixtures fixtures;
+	private int sequence;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(jdbcTemplate);
+		fixtures.insertBusiness(businessId, "paging");
+		fixtures.insertCustomer(customerId, businessId, "Paging Customer");
+
+		insertInvoice(TODAY);
+		insertInvoice(null);
+		insertInvoice(TODAY.minusDays(1));
+		insertInvoice(null);
+		insertInvoice(TODAY.minusDays(2));
+
+		BusinessContext.setBusinessId(businessId);
+	}
+
+	@AfterEach
+	void tearDown() {
+		BusinessContext.clear();
+	}
+
+	@Test
+	void pagesThroughInvoicesWithoutIssueDateLast() {
+		List<InvoiceSummaryResponse> invoices = new ArrayList<>();
+		String cursor = null;
+
+		do {
+			// Page size 2 ends a page on an undated invoice
+			PageResponse<InvoiceSummaryResponse> page = invoiceService.listInvoiceSummaries(
+					new InvoiceFilter(null, null, null, null), cursor, 2);
+			invoices.addAll(page.getItems());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertThat(invoices).extracting(InvoiceSummaryResponse::getId).doesNotHaveDuplicates();
+		assertThat(invoices).extracting(InvoiceSummaryResponse::getIssueDate)
+				.containsExactlyElementsOf(Arrays.asList(
+						TODAY, TODAY.minusDays(1), TODAY.minusDays(2), null, null));
+	}
+
+	private void insertInvoice(LocalDate issueDate) {
+		fixtures.invoice(businessId, customerId, "PAGE-" + sequence++)
+				.status("DRAFT")
+				.issueDate(issueDate)
+				.insert();
+	}
+}
@@ -0,0 +1,168 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.domain.Invoice;
+import com.smartinvoice.backend.domain.InvoiceLineItem;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvoicePricingTests {
+
+	@Test
+	void roundsLinesToCurrencyMinorUnit() {
+		Invoice invoice = invoice("INR", item("3", "33.333", "18", "5"));
+
+		InvoicePricing.applyTotals(invoice);
+
+		// base 99.999, tax 17.99982, discount 4.99995
+		assertThat(invoice.getSubtotal()).isEqualTo(new BigDecimal("100.00"));
+		assertThat(invoice.getTaxTotal()).isEqualTo(new BigDecimal("18.00"));
+		assertThat(invoice.getDiscountTotal()).isEqualTo(new BigDecimal("5.00"));
+		assertThat(invoice.getTotalAmount()).isEqualTo(new BigDecimal("113.00"));
+		assertThat(invoice.getLineItems().get(0).getLineTotal()).isEqualTo(new BigDecimal("113.00"));
+	}
+
+	@Test
+	void usesCurrencySpecificScale() {
+		assertThat(InvoicePricing.currencyScale("JPY")).isZero();
+		assertThat(InvoicePricing.currencyScale("INR")).isEqualTo(2);
+		assertThat(InvoicePricing.currencyScale("KWD")).isEqualTo(3);
+		assertThat(InvoicePricing.currencyScale("XYZ")).isEqualTo(2);
+
+		Invoice invoice = invoice("JPY", item("1", "999", "10", null));
+		InvoicePricing.applyTotals(invoice);
+
+		assertThat(invoice.getTaxTotal()).isEqualTo(new BigDecimal("100"));
+		assertThat(invoice.getTotalAmount()).isEqualTo(new BigDecimal("1099"));
+	}
+
+	@Test
+	void totalsReconcileWithLineTotals() {
+		Invoice invoice = invoice("INR",
+				item("1", "0.005", "18", null),
+				item("1", "0.005", "18", null),
+				item("7", "1.4285", "12.5", "2.5"));
+
+		InvoicePricing.applyTotals(invoice);
+
+		BigDecimal sumOfLines = invoice.getLineItems().stream()
+				.map(InvoiceLineItem::getLineTotal)
+				.reduce(BigDecimal.ZERO, BigDecimal::add);
+
+		assertThat(invoice.getTotalAmount()).isEqualTo(sumOfLines);
+	}
+
+	@Test
+	void fallsBackToExactArithmeticOnOverflowAndExtraPrecision() {
+		Invoice overflowing = invoice("INR", item("1000000000", "99999999999.99", "18", null));
+		InvoicePricing.applyTotals(overflowing);
+
+		assertThat(overflowing.getSubtotal()).isEqualTo(new BigDecimal("99999999999990000000.00"));
+		assertThat(overflowing.getTaxTotal()).isEqualTo(new BigDecimal("17999999999998200000.00"));
+
+		Invoice precise = invoice("INR", item("1.00001", "10", "18.125", null));
+		InvoicePricing.applyTotals(precise);
+
+		assertThat(precise.getSubtotal()).isEqualTo(new BigDecimal("10.00"));
+		assertThat(precise.getTaxTotal()).isEqualTo(new BigDecimal("1.81"));
+	}
+
+	@Test
+	void scaledAndExactPricingAgree() {
+		Random random = new Random(42);
+
+		for (String currency : List.of("INR", "JPY", "KWD")) {
+			for (int run = 0; run < 200; run++) {
+				List<InvoiceLineItem> items = new ArrayList<>();
+				for (int i = 0; i < 20; i++) {
+					items.add(item(
+							BigDecimal.valueOf(random.nextInt(1_000_000), random.nextInt(5)).toPlainString(),
+							BigDecimal.valueOf(random.nextInt(100_000_000), random.nextInt(5)).toPlainString(),
+							BigDecimal.valueOf(random.nextInt(10_000), 2).toPlainString(),
+							BigDecimal.valueOf(random.nextInt(5_000), 2).toPlainString()));
+				}
+
+				Invoice scaled = invoice(currency, items.toArray(InvoiceLineItem[]::new));
+				Invoice exact = invoice(currency, copy(items));
+
+				InvoicePricing.applyTotals(scaled);
+				InvoicePricing.priceExact(exact, InvoicePricing.currencyScale(currency));
+
+				assertThat(scaled.getSubtotal()).isEqualTo(exact.getSubtotal());
+				assertThat(scaled.getTaxTotal()).isEqualTo(exact.getTaxTotal());
+				assertThat(scaled.getDiscountTotal()).isEqualTo(exact.getDiscountTotal());
+				assertThat(scaled.getTotalAmount()).isEqualTo(exact.getTotalAmount());
+
+				for (int i = 0; i < items.size(); i++) {
+					assertThat(scaled.getLineItems().get(i).getLineTotal())
+							.isEqualTo(exact.getLineItems().get(i).getLineTotal());
+				}
+			}
+		}
+	}
+
+	@Test
+	void lineDeltasMatchFullRepricing() {
+		Random random = new Random(7);
+		Invoice incremental = invoice("INR");
+		Invoice full = invoice("INR");
+
+		for (int i = 0; i < 500; i++) {
+			InvoiceLineItem item = item(
+					BigDecimal.valueOf(random.nextInt(10_000), random.nextInt(3)).toPlainString(),
+					BigDecimal.valueOf(random.nextInt(1_000_000), random.nextInt(5)).toPlainString(),
+					BigDecimal.valueOf(random.nextInt(3_000), 2).toPlainString(),
+					null);
+
+			if (i % 5 == 4) {
+				InvoiceLineItem removed = incremental.getLineItems().remove(random.nextInt(incremental.getLineItems().size()));
+				InvoicePricing.removeLine(incremental, removed);
+			} else if (i % 5 == 3) {
+				InvoiceLineItem updated = incremental.getLineItems().get(random.nextInt(incremental.getLineItems().size()));
+				InvoicePricing.removeLine(incremental, updated);
+				updated.setQuantity(item.getQuantity());
+				InvoicePricing.addLine(incremental, updated);
+			} else {
+				incremental.getLineItems().add(item);
+				InvoicePricing.addLine(incremental, item);
+			}
+		}
+
+		full.setLineItems(new ArrayList<>(List.of(copy(incremental.getLineItems()))));
+		InvoicePricing.applyTotals(full);
+
+		assertThat(incremental.getSubtotal()).isEqualByComparingTo(full.getSubtotal());
+		assertThat(incremental.getTaxTotal()).isEqualByComparingTo(full.getTaxTotal());
+		assertThat(incremental.getDiscountTotal()).isEqualByComparingTo(full.getDiscountTotal());
+		assertThat(incremental.getTotalAmount()).isEqualByComparingTo(full.getTotalAmount());
+	}
+
+	private Invoice invoice(String currency, InvoiceLineItem... items) {
+		Invoice invoice = new Invoice();
+		invoice.setCurrency(currency);
+		invoice.setLineItems(new ArrayList<>(List.of(items)));
+		return invoice;
+	}
+
+	private InvoiceLineItem item(String quantity, String unitPrice, String taxPercent, String discountPercent) {
+		InvoiceLineItem item = new InvoiceLineItem();
+		item.setQuantity(new BigDecimal(quantity));
+		item.setUnitPrice(new BigDecimal(unitPrice));
+		item.setTaxPercent(taxPercent == null ? null : new BigDecimal(taxPercent));
+		item.setDiscountPercent(discountPercent == null ? null : new BigDecimal(discountPercent));
+		return item;
+	}
+
+	private InvoiceLineItem[] copy(List<InvoiceLineItem> items) {
+		return items.stream()
+				.map(i -> item(i.getQuantity().toPlainString(), i.getUnitPrice().toPlainString(),
+						i.getTaxPercent() == null ? null : i.getTaxPercent().toPlainString(),
+						i.getDiscountPercent() == null ? null : i.getDiscountPercent().toPlainString()))
+				.toArray(InvoiceLineItem[]::new);
+	}
+}
@@ -0,0 +1,115 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.domain.Business;
+import com.smartinvoice.backend.domain.Customer;
+import com.smartinvoice.backend.dto.CreateInvoiceRequest;
+import com.smartinvoice.backend.dto.InvoiceResponse;
+import com.smartinvoice.backend.repository.BusinessRepository;
+import com.smartinvoice.backend.repository.CustomerRepository;
+import com.smartinvoice.backend.tenant.BusinessContext;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class InvoiceQueryCountTests {
+
+	private static final int INVOICE_COUNT = 25;
+	private static final int MAX_STATEMENTS = 2;
+
+	@Autowired
+	private InvoiceService invoiceService;
+
+	@Autowired
+	private BusinessRepository businessRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private final List<UUID> invoiceIds = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		Business business = new Business();
+		business.setName("query-count-" + UUID.randomUUID());
+		business.setCurrency("INR");
+		business.setPassword("secret");
+		business = businessRepository.save(business);
+
+		Customer customer = new Customer();
+		customer.setBusinessId(business.getId());
+		customer.setName("Query Count Customer");
+		customer = customerRepository.save(customer);
+
+		BusinessContext.setBusinessId(business.getId());
+
+		for (int i = 0; i < INVOICE_COUNT; i++) {
+			invoiceIds.add(invoiceService.createInvoice(invoiceRequest(customer.getId(), i)).getId());
+		}
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		BusinessContext.clear();
+	}
+
+	@Test
+	void listingInvoicesIssuesConstantNumberOfStatements() {
+		List<InvoiceResponse> invoices = invoiceService.getAllInvoices();
+
+		assertThat(invoices).hasSize(INVOICE_COUNT);
+		assertThat(invoices).allSatisfy(invoice -> assertThat(invoice.getLineItems()).hasSize(3));
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_STATEMENTS);
+	}
+
+	@Test
+	void loadingSingleInvoiceIssuesOneStatement() {
+		InvoiceResponse invoice = invoiceService.getInvoiceById(invoiceIds.get(0));
+
+		assertThat(invoice.getLineItems()).hasSize(3);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	private CreateInvoiceRequest invoiceRequest(UUID customerId, int sequence) {
+		CreateInvoiceRequest request = new CreateInvoiceRequest();
+		request.setInvoiceNumber("QC-" + sequence);
+		request.setCustomerId(customerId);
+		request.setCurrency("INR");
+		request.setIssueDate(LocalDate.now());
+		request.setDueDate(LocalDate.now().plusDays(30));
+		request.setGst(18);
+
+		List<CreateInvoiceRequest.LineItemRequest> lineItems = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			CreateInvoiceRequest.LineItemRequest item = new CreateInvoiceRequest.LineItemRequest();
+			item.setDescription("Item " + i);
+			item.setQuantity(BigDecimal.valueOf(i + 1));
+			item.setUnitPrice(new BigDecimal("10.00"));
+			item.setTaxPercent(new BigDecimal("18"));
+			lineItems.add(item);
+		}
+		request.setLineItems(lineItems);
+
+		return request;
+	}
+}
@@ -0,0 +1,208 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.domain.Business;
+import com.smartinvoice.backend.domain.Customer;
+import com.smartinvoice.backend.domain.Invoice;
+import com.smartinvoice.backend.domain.InvoiceLineItem;
+import com.smartinvoice.backend.dto.CreateInvoiceRequest;
+import com.smartinvoice.backend.dto.InvoiceResponse;
+import com.smartinvoice.backend.dto.LineItemOperationRequest;
+import com.smartinvoice.backend.dto.LineItemOperationRequest.Operation;
+import com.smartinvoice.backend.dto.LineItemResponse;
+import com.smartinvoice.backend.repository.BusinessRepository;
+import com.smartinvoice.backend.repository.CustomerRepository;
+import com.smartinvoice.backend.tenant.BusinessContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class LineItemOperationsTests {
+
+	@Autowired
+	private InvoiceService invoiceService;
+
+	@Autowired
+	private BusinessRepository businessRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	private InvoiceResponse invoice;
+
+	@BeforeEach
+	void setUp() {
+		Business business = new Business();
+		business.setName("line-items-" + UUID.randomUUID());
+		business.setCurrency("INR");
+		business.setPassword("secret");
+		business = businessRepository.save(business);
+
+		Customer customer = new Customer();
+		customer.setBusinessId(business.getId());
+		customer.setName("Line Item Customer");
+		customer = customerRepository.save(customer);
+
+		BusinessContext.setBusinessId(business.getId());
+
+		CreateInvoiceRequest request = new CreateInvoiceRequest();
+		request.setInvoiceNumber("OPS-1");
+		request.setCustomerId(customer.getId());
+		request.setCurrency("INR");
+		request.setIssueDate(LocalDate.now());
+		request.setDueDate(LocalDate.now().plusDays(30));
+		request.setGst(18);
+		request.setLineItems(List.of(
+				item("Design", "3", "33.33", "18", "7.5"),
+				item("Hosting", "1", "19.99", "18", null),
+				item("Support", "2.5", "12.10", null, "10")));
+
+		invoice = invoiceService.createInvoice(request);
+	}
+
+	@AfterEach
+	void tearDown() {
+		BusinessContext.clear();
+	}
+
+	@Test
+	void mixedBatchLeavesTotalsEqualToFullReprice() {
+		InvoiceResponse updated = invoiceService.applyLineItemOperations(invoice.getId(), List.of(
+				add(item("Training", "4", "7.77", "5", "2.5")),
+				update(lineId("Design"), item("Design", "5", "31.11", "18", "12.5")),
+				delete(lineId("Hosting")),
+				add(item("Licence", "1", "0.01", "18", null))));
+
+		assertThat(updated.getLineItems()).extracting(LineItemResponse::getDescription)
+				.containsExactlyInAnyOrder("Design", "Support", "Training", "Licence");
+
+		InvoiceResponse reloaded = invoiceService.getInvoiceById(invoice.getId());
+		Invoice repriced = reprice(reloaded);
+
+		assertThat(reloaded.getSubtotal()).isEqualByComparingTo(repriced.getSubtotal());
+		assertThat(reloaded.getTaxTotal()).isEqualByComparingTo(repriced.getTaxTotal());
+		assertThat(reloaded.getDiscountTotal()).isEqualByComparingTo(repriced.getDiscountTotal());
+		assertThat(reloaded.getTotalAmount()).isEqualByComparingTo(repriced.getTotalAmount());
+		assertThat(updated.getTotalAmount()).isEqualByComparingTo(repriced.getTotalAmount());
+	}
+
+	@Test
+	void updateAfterDeleteOfSameLineFailsWholeBatch() {
+		UUID design = lineId("Design");
+
+		assertThatThrownBy(() -> invoiceService.applyLineItemOperations(invoice.getId(), List.of(
+				delete(design),
+				update(design, item("Design", "1", "1.00", null, null)))))
+				.hasMessage("Line item not found: " + design);
+
+		assertUnchanged();
+	}
+
+	@Test
+	void unknownLineRollsBackWholeBatch() {
+		UUID unknown = UUID.randomUUID();
+
+		assertThatThrownBy(() -> invoiceService.applyLineItemOperations(invoice.getId(), List.of(
+				add(item("Extra", "1", "100.00", null, null)),
+				update(lineId("Support"), item("Support", "9", "9.00", null, null)),
+				delete(unknown))))
+				.hasMessage("Line item not found: " + unknown);
+
+		assertUnchanged();
+	}
+
+	@Test
+	void rejectsMoreThanMaximumOperations() {
+		List<LineItemOperationRequest> operations = new ArrayList<>(
+				Collections.nCopies(1001, add(item("Bulk", "1", "1.00", null, null))));
+
+		assertThatThrownBy(() -> invoiceService.applyLineItemOperations(invoice.getId(), operations))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("At most 1000 line item operations are allowed");
+
+		InvoiceResponse atLimit = invoiceService.applyLineItemOperations(
+				invoice.getId(), operations.subList(0, 1000));
+
+		assertThat(atLimit.getLineItems()).hasSize(1003);
+	}
+
+	private void assertUnchanged() {
+		InvoiceResponse reloaded = invoiceService.getInvoiceById(invoice.getId());
+
+		assertThat(reloaded.getLineItems()).extracting(LineItemResponse::getId)
+				.containsExactlyInAnyOrderElementsOf(invoice.getLineItems().stream().map(LineItemResponse::getId).toList());
+		assertThat(reloaded.getLineItems()).extracting(LineItemResponse::getLineTotal)
+				.usingComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+				.containsExactlyInAnyOrderElementsOf(invoice.getLineItems().stream().map(LineItemResponse::getLineTotal).toList());
+		assertThat(reloaded.getTotalAmount()).isEqualByComparingTo(invoice.getTotalAmount());
+	}
+
+	private UUID lineId(String description) {
+		return invoice.getLineItems().stream()
+				.filter(line -> line.getDescription().equals(description))
+				.findFirst()
+				.orElseThrow()
+				.getId();
+	}
+
+	private static Invoice reprice(InvoiceResponse response) {
+		Invoice invoice = new Invoice();
+		invoice.setCurrency(response.getCurrency());
+		invoice.setLineItems(new ArrayList<>());
+
+		for (LineItemResponse line : response.getLineItems()) {
+			InvoiceLineItem item = new InvoiceLineItem();
+			item.setQuantity(line.getQuantity());
+			item.setUnitPrice(line.getUnitPrice());
+			item.setTaxPercent(line.getTaxPercent());
+			item.setDiscountPercent(line.getDiscountPercent());
+			invoice.getLineItems().add(item);
+		}
+
+		InvoicePricing.applyTotals(invoice);
+		return invoice;
+	}
+
+	private static LineItemOperationRequest add(CreateInvoiceRequest.LineItemRequest item) {
+		return operation(Operation.ADD, null, item);
+	}
+
+	private static LineItemOperationRequest update(UUID id, CreateInvoiceRequest.LineItemRequest item) {
+		return operation(Operation.UPDATE, id, item);
+	}
+
+	private static LineItemOperationRequest delete(UUID id) {
+		return operation(Operation.DELETE, id, null);
+	}
+
+	private static LineItemOperationRequest operation(Operation op, UUID id, CreateInvoiceRequest.LineItemRequest item) {
+		LineItemOperationRequest operation = new LineItemOperationRequest();
+		operation.setOp(op);
+		operation.setId(id);
+		operation.setItem(item);
+		return operation;
+	}
+
+	private static CreateInvoiceRequest.LineItemRequest item(String description, String quantity, String unitPrice,
+			String taxPercent, String discountPercent) {
+		CreateInvoiceRequest.LineItemRequest item = new CreateInvoiceRequest.LineItemRequest();
+		item.setDescription(description);
+		item.setQuantity(new BigDecimal(quantity));
+		item.setUnitPrice(new BigDecimal(unitPrice));
+		item.setTaxPercent(taxPercent == null ? null : new BigDecimal(taxPercent));
+		item.setDiscountPercent(discountPercent == null ? null : new BigDecimal(discountPercent));
+		return item;
+	}
+}
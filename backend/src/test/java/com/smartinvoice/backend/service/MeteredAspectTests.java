@@ -0,0 +1,118 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.tenant.BusinessContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MeteredAspectTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@AfterEach
+	void tearDown() {
+		BusinessContext.clear();
+	}
+
+	@Test
+	void recordsOperationTierAndOutcome() {
+		Operations operations = proxy();
+		BusinessContext.setBusinessId(UUID.randomUUID());
+
+		operations.succeed();
+		operations.succeed();
+		assertThatThrownBy(operations::reject).isInstanceOf(IllegalArgumentException.class);
+
+		assertThat(meterRegistry.get("smartinvoice.test.operations")
+				.tags("operation", "succeed", "tier", "standard", "outcome", "success")
+				.timer()
+				.count()).isEqualTo(2);
+		assertThat(meterRegistry.get("smartinvoice.test.operations")
+				.tags("operation", "reject", "tier", "standard", "outcome", "rejected")
+				.timer()
+				.count()).isEqualTo(1);
+	}
+
+	@Test
+	void tagsOnlyLockingFailuresAsConflicts() {
+		Operations operations = proxy();
+
+		assertThatThrownBy(operations::refuse).isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(operations::loseRace).isInstanceOf(OptimisticLockingFailureException.class);
+		assertThatThrownBy(operations::exhaustRetries).isInstanceOf(IllegalStateException.class);
+
+		assertThat(meterRegistry.get("smartinvoice.test.operations")
+				.tags("operation", "refuse", "outcome", "rejected")
+				.timer()
+				.count()).isEqualTo(1);
+		assertThat(meterRegistry.get("smartinvoice.test.operations")
+				.tags("operation", "loseRace", "outcome", "conflict")
+				.timer()
+				.count()).isEqualTo(1);
+		assertThat(meterRegistry.get("smartinvoice.test.operations")
+				.tags("operation", "exhaustRetries", "outcome", "conflict")
+				.timer()
+				.count()).isEqualTo(1);
+	}
+
+	@Test
+	void tagsCallsOutsideRequestWithNoTier() {
+		proxy().succeed();
+
+		assertThat(meterRegistry.get("smartinvoice.test.operations")
+				.tags("operation", "succeed", "tier", "none")
+				.timer()
+				.count()).isEqualTo(1);
+	}
+
+	private Operations proxy() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.registerBean(MeteredAspect.class, () -> new MeteredAspect(new ServiceMetrics(meterRegistry)));
+		context.registerBean(Operations.class);
+		context.register(AopConfig.class);
+		context.refresh();
+		return context.getBean(Operations.class);
+	}
+
+	@EnableAspectJAutoProxy
+	static class AopConfig {
+	}
+
+	static class Operations {
+
+		@Metered("smartinvoice.test.operations")
+		public void succeed() {
+		}
+
+		@Metered("smartinvoice.test.operations")
+		public void reject() {
+			throw new IllegalArgumentException("rejected");
+		}
+
+		@Metered("smartinvoice.test.operations")
+		public void refuse() {
+			throw new IllegalStateException("Invoice is not payable");
+		}
+
+		@Metered("smartinvoice.test.operations")
+		public void loseRace() {
+			throw new OptimisticLockingFailureException("stale version");
+		}
+
+		@Metered("smartinvoice.test.operations")
+		public void exhaustRetries() {
+			new ConflictRetryPolicy(2, Duration.ZERO).execute(() -> {
+				throw new OptimisticLockingFailureException("stale version");
+			});
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.TestFixtures;
+import com.smartinvoice.backend.domain.InvoiceStatus;
+import com.smartinvoice.backend.dto.OutstandingInvoiceResponse;
+import com.smartinvoice.backend.dto.RecordPaymentRequest;
+import com.smartinvoice.backend.tenant.BusinessContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "smartinvoice.overdue.sweep-batch-size=2")
+class OverdueInvoiceSweeperTests {
+
+	@Autowired
+	private OverdueInvoiceSweeper sweeper;
+
+	@Autowired
+	private InvoiceService invoiceService;
+
+	@Autowired
+	private ReportService reportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final UUID businessId = UUID.randomUUID();
+	private final UUID customerId = UUID.randomUUID();
+
+	private TestFixtures fixtures;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(jdbcTemplate);
+		fixtures.insertBusiness(businessId, "overdue");
+		fixtures.insertCustomer(customerId, businessId, "Overdue Customer");
+
+		BusinessContext.setBusinessId(businessId);
+	}
+
+	@AfterEach
+	void tearDown() {
+		BusinessContext.clear();
+	}
+
+	@Test
+	void movesOnlyDueUnpaidInvoicesToOverdue() {
+		LocalDate today = LocalDate.now();
+
+		UUID sentPastDue = insertInvoice("OD-1", InvoiceStatus.SENT, today.minusDays(1), 0);
+		UUID partiallyPaidPastDue = insertInvoice("OD-2", InvoiceStatus.PARTIALLY_PAID, today.minusDays(10), 40);
+		UUID sentPastDueToo = insertInvoice("OD-3", InvoiceStatus.SENT, today.minusDays(30), 0);
+		UUID dueToday = insertInvoice("OD-4", InvoiceStatus.SENT, today, 0);
+		UUID paidPastDue = insertInvoice("OD-5", InvoiceStatus.PAID, today.minusDays(5), 100);
+		UUID draftPastDue = insertInvoice("OD-6", InvoiceStatus.DRAFT, today.minusDays(5), 0);
+
+		sweeper.sweep();
+
+		assertThat(statusOf(sentPastDue)).isEqualTo(InvoiceStatus.OVERDUE);
+		assertThat(statusOf(partiallyPaidPastDue)).isEqualTo(InvoiceStatus.OVERDUE);
+		assertThat(statusOf(sentPastDueToo)).isEqualTo(InvoiceStatus.OVERDUE);
+		assertThat(statusOf(dueToday)).isEqualTo(InvoiceStatus.SENT);
+		assertThat(statusOf(paidPastDue)).isEqualTo(InvoiceStatus.PAID);
+		assertThat(statusOf(draftPastDue)).isEqualTo(InvoiceStatus.DRAFT);
+
+		assertThat(reportService.overdueInvoices())
+				.extracting(OutstandingInvoiceResponse::getInvoiceNumber)
+				.containsExactlyInAnyOrder("OD-1", "OD-2", "OD-3");
+	}
+
+	@Test
+	void partialPaymentKeepsInvoiceOverdue() {
+		UUID invoiceId = insertInvoice("OD-7", InvoiceStatus.SENT, LocalDate.now().minusDays(3), 0);
+
+		sweeper.sweep();
+
+		RecordPaymentRequest partial = new RecordPaymentRequest();
+		partial.setAmount(new BigDecimal("30.00"));
+		partial.setPaymentReference("OD-7-1");
+		assertThat(invoiceService.recordPayment(invoiceId, partial, UUID.randomUUID().toString()).getStatus())
+				.isEqualTo(InvoiceStatus.OVERDUE.name());
+
+		RecordPaymentRequest rest = new RecordPaymentRequest();
+		rest.setAmount(new BigDecimal("70.00"));
+		rest.setPaymentReference("OD-7-2");
+		assertThat(invoiceService.recordPayment(invoiceId, rest, UUID.randomUUID().toString()).getStatus())
+				.isEqualTo(InvoiceStatus.PAID.name());
+	}
+
+	private UUID insertInvoice(String number, InvoiceStatus status, LocalDate dueDate, int paid) {
+		return fixtures.invoice(businessId, customerId, number)
+				.status(status.name())
+				.dueDate(dueDate)
+				.paid(paid)
+				.insert();
+	}
+
+	private InvoiceStatus statusOf(UUID invoiceId) {
+		return InvoiceStatus.valueOf(jdbcTemplate.queryForObject(
+				"SELECT status FROM invoices WHERE id = ?", String.class, invoiceId));
+	}
+}
@@ -0,0 +1,170 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.domain.Business;
+import com.smartinvoice.backend.domain.Customer;
+import com.smartinvoice.backend.domain.Payment;
+import com.smartinvoice.backend.dto.CreateInvoiceRequest;
+import com.smartinvoice.backend.dto.InvoiceResponse;
+import com.smartinvoice.backend.dto.RecordPaymentRequest;
+import com.smartinvoice.backend.repository.BusinessRepository;
+import com.smartinvoice.backend.repository.CustomerRepository;
+import com.smartinvoice.backend.repository.PaymentRepository;
+import com.smartinvoice.backend.tenant.BusinessContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class PaymentConcurrencyTests {
+
+	private static final int THREADS = 32;
+	private static final int PAYMENTS = 2000;
+	private static final BigDecimal INVOICE_TOTAL = new BigDecimal("1000.00");
+	private static final BigDecimal PAYMENT_AMOUNT = BigDecimal.ONE;
+
+	@Autowired
+	private InvoiceService invoiceService;
+
+	@Autowired
+	private BusinessRepository businessRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@AfterEach
+	void tearDown() {
+		BusinessContext.clear();
+	}
+
+	@Test
+	void concurrentPaymentsNeitherOverpayNorLoseUpdates() throws Exception {
+		UUID businessId = createBusiness();
+		BusinessContext.setBusinessId(businessId);
+		UUID invoiceId = createSentInvoice(businessId);
+		BusinessContext.clear();
+
+		double missesBefore = idempotencyCount(ServiceMetrics.IDEMPOTENCY_MISS);
+		double hitsBefore = idempotencyCount(ServiceMetrics.IDEMPOTENCY_STORED_HIT)
+				+ idempotencyCount(ServiceMetrics.IDEMPOTENCY_CACHE_HIT);
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger overpayments = new AtomicInteger();
+		List<Throwable> failures = new CopyOnWriteArrayList<>();
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int i = 0; i < PAYMENTS; i++) {
+			// Every idempotency key is sent twice to exercise the key claim as well
+			String idempotencyKey = "stress-" + (i / 2);
+
+			futures.add(executor.submit(() -> {
+				start.await();
+				BusinessContext.setBusinessId(businessId);
+				try {
+					RecordPaymentRequest request = new RecordPaymentRequest();
+					request.setAmount(PAYMENT_AMOUNT);
+					request.setCurrency("INR");
+					invoiceService.recordPayment(invoiceId, request, idempotencyKey);
+				} catch (IllegalArgumentException e) {
+					overpayments.incrementAndGet();
+				} catch (RuntimeException e) {
+					// Includes ConflictRetryPolicy giving up, which must not happen
+					failures.add(e);
+				} finally {
+					BusinessContext.clear();
+				}
+				return null;
+			}));
+		}
+
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(5, TimeUnit.MINUTES);
+		}
+		executor.shutdown();
+
+		BusinessContext.setBusinessId(businessId);
+		InvoiceResponse invoice = invoiceService.getInvoiceById(invoiceId);
+		List<Payment> payments = paymentRepository.findByInvoiceIdAndBusinessId(invoiceId, businessId);
+
+		BigDecimal paid = payments.stream()
+				.map(Payment::getAmount)
+				.reduce(BigDecimal.ZERO, BigDecimal::add);
+
+		// One payment per idempotency key, and the keys add up to exactly the total
+		assertThat(failures).isEmpty();
+		assertThat(overpayments.get()).isZero();
+		assertThat(invoice.getAmountPaid()).isEqualByComparingTo(INVOICE_TOTAL);
+		assertThat(invoice.getAmountPaid()).isEqualByComparingTo(paid);
+		assertThat(invoice.getStatus()).isEqualTo("PAID");
+		assertThat(payments).hasSize(PAYMENTS / 2);
+
+		// Each request is counted once, however many attempts it took
+		double misses = idempotencyCount(ServiceMetrics.IDEMPOTENCY_MISS) - missesBefore;
+		double hits = idempotencyCount(ServiceMetrics.IDEMPOTENCY_STORED_HIT)
+				+ idempotencyCount(ServiceMetrics.IDEMPOTENCY_CACHE_HIT) - hitsBefore;
+		assertThat(misses).isEqualTo(PAYMENTS / 2);
+		assertThat(hits).isEqualTo(PAYMENTS / 2);
+	}
+
+	private double idempotencyCount(String result) {
+		return meterRegistry.find("smartinvoice.idempotency.requests")
+				.tag("result", result)
+				.counters()
+				.stream()
+				.mapToDouble(Counter::count)
+				.sum();
+	}
+
+	private UUID createBusiness() {
+		Business business = new Business();
+		business.setName("payment-stress-" + UUID.randomUUID());
+		business.setCurrency("INR");
+		business.setPassword("secret");
+		return businessRepository.save(business).getId();
+	}
+
+	private UUID createSentInvoice(UUID businessId) {
+		Customer customer = new Customer();
+		customer.setBusinessId(businessId);
+		customer.setName("Stress Customer");
+		customer = customerRepository.save(customer);
+
+		CreateInvoiceRequest.LineItemRequest item = new CreateInvoiceRequest.LineItemRequest();
+		item.setDescription("Subscription");
+		item.setQuantity(BigDecimal.ONE);
+		item.setUnitPrice(INVOICE_TOTAL);
+
+		CreateInvoiceRequest request = new CreateInvoiceRequest();
+		request.setInvoiceNumber("STRESS-1");
+		request.setCustomerId(customer.getId());
+		request.setCurrency("INR");
+		request.setIssueDate(LocalDate.now());
+		request.setDueDate(LocalDate.now().plusDays(30));
+		request.setGst(0);
+		request.setLineItems(List.of(item));
+
+		UUID invoiceId = invoiceService.createInvoice(request).getId();
+		invoiceService.sendInvoice(invoiceId);
+		return invoiceId;
+	}
+}
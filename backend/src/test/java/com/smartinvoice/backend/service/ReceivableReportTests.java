@@ -0,0 +1,159 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.TestFixtures;
+import com.smartinvoice.backend.dto.OutstandingInvoiceResponse;
+import com.smartinvoice.backend.dto.PageResponse;
+import com.smartinvoice.backend.dto.RecordPaymentRequest;
+import com.smartinvoice.backend.repository.ReceivableSort;
+import com.smartinvoice.backend.tenant.BusinessContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ReceivableReportTests {
+
+	private static final LocalDate TODAY = LocalDate.now();
+
+	@Autowired
+	private ReportService reportService;
+
+	@Autowired
+	private InvoiceService invoiceService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final UUID businessId = UUID.randomUUID();
+	private final UUID customerId = UUID.randomUUID();
+
+	private TestFixtures fixtures;
+	private int sequence;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(jdbcTemplate);
+		fixtures.insertBusiness(businessId, "receivables");
+		fixtures.insertCustomer(customerId, businessId, "Receivable Customer");
+
+		// Ties on both remaining amount and due date, so pages split within equal keys
+		insertInvoice("SENT", TODAY.plusDays(10), 100, 0);
+		insertInvoice("SENT", TODAY.plusDays(10), 100, 0);
+		insertInvoice("PARTIALLY_PAID", TODAY.plusDays(3), 100, 75);
+		insertInvoice("OVERDUE", TODAY.minusDays(20), 300, 0);
+		insertInvoice("OVERDUE", TODAY.minusDays(5), 300, 100);
+		insertInvoice("OVERDUE", TODAY.minusDays(20), 50, 0);
+		insertInvoice("PAID", TODAY.minusDays(50), 100, 100);
+
+		BusinessContext.setBusinessId(businessId);
+	}
+
+	@AfterEach
+	void tearDown() {
+		BusinessContext.clear();
+	}
+
+	@Test
+	void pagesOutstandingInvoicesByRemainingAmount() {
+		List<OutstandingInvoiceResponse> rows = readAllPages(false, ReceivableSort.REMAINING_AMOUNT);
+
+		assertThat(rows).extracting(row -> row.getRemainingAmount().intValue())
+				.containsExactly(300, 200, 100, 100, 50, 25);
+		assertThat(rows).extracting(OutstandingInvoiceResponse::getInvoiceId)
+				.doesNotHaveDuplicates()
+				.containsExactlyElementsOf(reportService.outstandingInvoices().stream()
+						.map(OutstandingInvoiceResponse::getInvoiceId)
+						.toList());
+	}
+
+	@Test
+	void pagesOverdueInvoicesByDueDate() {
+		List<OutstandingInvoiceResponse> rows = readAllPages(true, ReceivableSort.DUE_DATE);
+
+		assertThat(rows).hasSize(3);
+		assertThat(rows).extracting(OutstandingInvoiceResponse::getDueDate)
+				.containsExactly(TODAY.minusDays(20), TODAY.minusDays(20), TODAY.minusDays(5));
+	}
+
+	@Test
+	void rejectsCursorFromAnotherSort() {
+		String cursor = reportService.outstandingInvoices(ReceivableSort.REMAINING_AMOUNT, null, 2)
+				.getNextCursor();
+
+		assertThatThrownBy(() -> reportService.outstandingInvoices(ReceivableSort.DUE_DATE, cursor, 2))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid cursor");
+	}
+
+	@Test
+	void streamsEveryRowAsNdjsonInSortOrder() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		reportService.streamReceivables(businessId, false, ReceivableSort.DUE_DATE, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+		assertThat(lines).hasSize(6);
+		assertThat(lines[0]).contains("\"dueDate\":\"" + TODAY.minusDays(20) + "\"");
+		assertThat(lines[5]).contains("\"dueDate\":\"" + TODAY.plusDays(10) + "\"");
+	}
+
+	@Test
+	void cachedReportIsInvalidatedWhenPaymentCommits() {
+		List<OutstandingInvoiceResponse> before = reportService.outstandingInvoices();
+		OutstandingInvoiceResponse largest = before.get(0);
+
+		// Served from the cache until something changes
+		assertThat(reportService.outstandingInvoices()).isSameAs(before);
+
+		RecordPaymentRequest payment = new RecordPaymentRequest();
+		payment.setAmount(largest.getRemainingAmount());
+		payment.setCurrency("INR");
+		invoiceService.recordPayment(largest.getInvoiceId(), payment, "cache-" + UUID.randomUUID());
+
+		assertThat(reportService.outstandingInvoices())
+				.hasSize(before.size() - 1)
+				.extracting(OutstandingInvoiceResponse::getInvoiceId)
+				.doesNotContain(largest.getInvoiceId());
+	}
+
+	private List<OutstandingInvoiceResponse> readAllPages(boolean overdue, ReceivableSort sort) {
+		List<OutstandingInvoiceResponse> rows = new ArrayList<>();
+		String cursor = null;
+
+		do {
+			PageResponse<OutstandingInvoiceResponse> page = overdue
+					? reportService.overdueInvoices(sort, cursor, 2)
+					: reportService.outstandingInvoices(sort, cursor, 2);
+
+			assertThat(page.getItems()).hasSizeLessThanOrEqualTo(2);
+			rows.addAll(page.getItems());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		return rows;
+	}
+
+	private void insertInvoice(String status, LocalDate dueDate, int total, int paid) {
+		fixtures.invoice(businessId, customerId, "RCV-" + sequence++)
+				.status(status)
+				.dueDate(dueDate)
+				.total(total)
+				.paid(paid)
+				.insert();
+	}
+}
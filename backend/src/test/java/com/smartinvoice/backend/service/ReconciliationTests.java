@@ -0,0 +1,188 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.domain.Business;
+import com.smartinvoice.backend.domain.Customer;
+import com.smartinvoice.backend.dto.CreateInvoiceRequest;
+import com.smartinvoice.backend.dto.InvoiceResponse;
+import com.smartinvoice.backend.dto.ReconciliationLineResult;
+import com.smartinvoice.backend.dto.ReconciliationReport;
+import com.smartinvoice.backend.repository.BusinessRepository;
+import com.smartinvoice.backend.repository.CustomerRepository;
+import com.smartinvoice.backend.repository.RevenueRollupRepository;
+import com.smartinvoice.backend.tenant.BusinessContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+class ReconciliationTests {
+
+	private static final String SETTLEMENT_FILE = """
+			invoiceNumber,paymentReference,amount,currency
+			REC-1,BANK-1,40.00,INR
+			REC-1,BANK-2,60.00,INR
+			REC-1,BANK-3,1.00,INR
+			REC-2,BANK-4,500.00,INR
+			REC-2,BANK-5,10.00,USD
+			,REC-2,25.00,INR
+			REC-9,BANK-6,10.00,INR
+			REC-2,BANK-4,5.00,INR
+			REC-2,BANK-7,abc,INR
+			""";
+
+	@Autowired
+	private ReconciliationService reconciliationService;
+
+	@Autowired
+	private InvoiceService invoiceService;
+
+	@Autowired
+	private BusinessRepository businessRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@MockitoSpyBean
+	private RevenueRollupRepository revenueRollupRepository;
+
+	private UUID firstInvoiceId;
+	private UUID secondInvoiceId;
+
+	@BeforeEach
+	void setUp() {
+		Business business = new Business();
+		business.setName("reconciliation-" + UUID.randomUUID());
+		business.setCurrency("INR");
+		business.setPassword("secret");
+		business = businessRepository.save(business);
+
+		Customer customer = new Customer();
+		customer.setBusinessId(business.getId());
+		customer.setName("Reconciliation Customer");
+		customer = customerRepository.save(customer);
+
+		BusinessContext.setBusinessId(business.getId());
+
+		firstInvoiceId = createSentInvoice(customer.getId(), "REC-1", new BigDecimal("100.00"));
+		secondInvoiceId = createSentInvoice(customer.getId(), "REC-2", new BigDecimal("200.00"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		BusinessContext.clear();
+	}
+
+	@Test
+	void appliesMatchingLinesAndReportsMismatches() throws Exception {
+		ReconciliationReport report = reconciliationService.importCsv(new StringReader(SETTLEMENT_FILE));
+
+		assertThat(report.getTotal()).isEqualTo(9);
+		assertThat(report.getApplied()).isEqualTo(3);
+		assertThat(report.getAppliedAmount()).isEqualByComparingTo("125.00");
+		assertThat(report.getMismatches())
+				.extracting(ReconciliationLineResult::getLine, ReconciliationLineResult::getOutcome)
+				.containsExactly(
+						tuple(4, "NOT_PAYABLE"),
+						tuple(5, "OVERPAYMENT"),
+						tuple(6, "CURRENCY_MISMATCH"),
+						tuple(8, "UNMATCHED"),
+						tuple(9, "DUPLICATE_IN_FILE"),
+						tuple(10, "INVALID"));
+
+		InvoiceResponse first = invoiceService.getInvoiceById(firstInvoiceId);
+		InvoiceResponse second = invoiceService.getInvoiceById(secondInvoiceId);
+
+		assertThat(first.getStatus()).isEqualTo("PAID");
+		assertThat(first.getAmountPaid()).isEqualByComparingTo("100.00");
+		assertThat(second.getStatus()).isEqualTo("PARTIALLY_PAID");
+		assertThat(second.getAmountPaid()).isEqualByComparingTo("25.00");
+	}
+
+	@Test
+	void reimportingAFileAppliesNothing() throws Exception {
+		reconciliationService.importCsv(new StringReader(SETTLEMENT_FILE));
+
+		ReconciliationReport report = reconciliationService.importCsv(new StringReader(SETTLEMENT_FILE));
+
+		assertThat(report.getApplied()).isZero();
+		assertThat(report.getAlreadyApplied()).isEqualTo(3);
+		assertThat(invoiceService.getInvoiceById(secondInvoiceId).getAmountPaid()).isEqualByComparingTo("25.00");
+	}
+
+	@Test
+	void retriesChunkThatLosesALockingRace() throws Exception {
+		doThrow(new CannotAcquireLockException("deadlock detected"))
+				.doCallRealMethod()
+				.when(revenueRollupRepository).addDailyRevenue(any(), any(), any());
+
+		ReconciliationReport report = reconciliationService.importCsv(new StringReader(SETTLEMENT_FILE));
+
+		assertThat(report.getApplied()).isEqualTo(3);
+		assertThat(report.getAppliedAmount()).isEqualByComparingTo("125.00");
+		assertThat(invoiceService.getInvoiceById(firstInvoiceId).getAmountPaid()).isEqualByComparingTo("100.00");
+	}
+
+	@Test
+	void reportsChunkThatKeepsFailingInsteadOfAborting() throws Exception {
+		doThrow(new CannotAcquireLockException("lock timeout"))
+				.when(revenueRollupRepository).addDailyRevenue(any(), any(), any());
+
+		ReconciliationReport report = reconciliationService.importCsv(new StringReader(SETTLEMENT_FILE));
+
+		// Lines rejected before posting keep their own outcome; the rest are failed, not lost
+		assertThat(report.getTotal()).isEqualTo(9);
+		assertThat(report.getApplied()).isZero();
+		assertThat(report.getMismatches())
+				.extracting(ReconciliationLineResult::getLine, ReconciliationLineResult::getOutcome)
+				.containsExactly(
+						tuple(2, "FAILED"),
+						tuple(3, "FAILED"),
+						tuple(4, "FAILED"),
+						tuple(5, "FAILED"),
+						tuple(6, "FAILED"),
+						tuple(7, "FAILED"),
+						tuple(8, "FAILED"),
+						tuple(9, "DUPLICATE_IN_FILE"),
+						tuple(10, "INVALID"));
+		assertThat(invoiceService.getInvoiceById(firstInvoiceId).getAmountPaid()).isEqualByComparingTo("0.00");
+
+		doCallRealMethod().when(revenueRollupRepository).addDailyRevenue(any(), any(), any());
+		assertThat(reconciliationService.importCsv(new StringReader(SETTLEMENT_FILE)).getApplied()).isEqualTo(3);
+	}
+
+	private UUID createSentInvoice(UUID customerId, String invoiceNumber, BigDecimal amount) {
+		CreateInvoiceRequest.LineItemRequest item = new CreateInvoiceRequest.LineItemRequest();
+		item.setDescription("Services");
+		item.setQuantity(BigDecimal.ONE);
+		item.setUnitPrice(amount);
+
+		CreateInvoiceRequest request = new CreateInvoiceRequest();
+		request.setInvoiceNumber(invoiceNumber);
+		request.setCustomerId(customerId);
+		request.setCurrency("INR");
+		request.setIssueDate(LocalDate.now());
+		request.setDueDate(LocalDate.now().plusDays(30));
+		request.setGst(0);
+		request.setLineItems(List.of(item));
+
+		UUID invoiceId = invoiceService.createInvoice(request).getId();
+		invoiceService.sendInvoice(invoiceId);
+		return invoiceId;
+	}
+}
@@ -0,0 +1,205 @@
+package com.smartinvoice.backend.service;
+
+import com.smartinvoice.backend.domain.Business;
+import com.smartinvoice.backend.domain.Customer;
+import com.smartinvoice.backend.domain.Payment;
+import com.smartinvoice.backend.domain.Refund;
+import com.smartinvoice.backend.dto.CreateInvoiceRequest;
+import com.smartinvoice.backend.dto.RecordPaymentRequest;
+import com.smartinvoice.backend.dto.RefundRequest;
+import com.smartinvoice.backend.repository.BusinessRepository;
+import com.smartinvoice.backend.repository.CustomerRepository;
+import com.smartinvoice.backend.repository.PaymentRepository;
+import com.smartinvoice.backend.repository.RefundRepository;
+import com.smartinvoice.backend.tenant.BusinessContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Without retries, a deadlock or lost update surfaces as a failed request
+@SpringBootTest(properties = "smartinvoice.conflict-retry.max-attempts=1")
+class RefundConcurrencyTests {
+
+	private static final BigDecimal PAYMENT_AMOUNT = new BigDecimal("100.00");
+	private static final BigDecimal REFUND_AMOUNT = new BigDecimal("60.00");
+	private static final int ROUNDS = 20;
+
+	@Autowired
+	private InvoiceService invoiceService;
+
+	@Autowired
+	private BusinessRepository businessRepository;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private RefundRepository refundRepository;
+
+	@AfterEach
+	void tearDown() {
+		BusinessContext.clear();
+	}
+
+	@Test
+	void simultaneousRefundsNeverExceedPaymentAmount() throws Exception {
+		UUID businessId = createBusiness();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			for (int round = 0; round < ROUNDS; round++) {
+				BusinessContext.setBusinessId(businessId);
+				UUID paymentId = createPayment(businessId, "REFUND-" + round, PAYMENT_AMOUNT);
+				BusinessContext.clear();
+
+				CyclicBarrier barrier = new CyclicBarrier(2);
+				AtomicInteger rejected = new AtomicInteger();
+				List<Future<?>> futures = new ArrayList<>();
+
+				for (int i = 0; i < 2; i++) {
+					futures.add(executor.submit(() -> {
+						barrier.await();
+						BusinessContext.setBusinessId(businessId);
+						try {
+							RefundRequest request = new RefundRequest();
+							request.setAmount(REFUND_AMOUNT);
+							request.setReason("Duplicate charge");
+							invoiceService.refundPayment(paymentId, request);
+						} catch (IllegalArgumentException e) {
+							rejected.incrementAndGet();
+						} finally {
+							BusinessContext.clear();
+						}
+						return null;
+					}));
+				}
+
+				for (Future<?> future : futures) {
+					future.get(1, TimeUnit.MINUTES);
+				}
+
+				Payment payment = paymentRepository.findById(paymentId).orElseThrow();
+				BigDecimal refunded = refundRepository.findByPaymentId(paymentId).stream()
+						.map(Refund::getAmount)
+						.reduce(BigDecimal.ZERO, BigDecimal::add);
+
+				assertThat(rejected.get()).isEqualTo(1);
+				assertThat(refunded).isEqualByComparingTo(REFUND_AMOUNT);
+				assertThat(payment.getRefundedAmount()).isEqualByComparingTo(refunded);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void concurrentPaymentAndRefundOnOneInvoiceBothApply() throws Exception {
+		UUID businessId = createBusiness();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		BigDecimal firstPayment = new BigDecimal("50.00");
+		BigDecimal secondPayment = new BigDecimal("20.00");
+		BigDecimal refundAmount = new BigDecimal("30.00");
+
+		try {
+			for (int round = 0; round < ROUNDS; round++) {
+				BusinessContext.setBusinessId(businessId);
+				UUID paymentId = createPayment(businessId, "MIXED-" + round, firstPayment);
+				UUID invoiceId = paymentRepository.findById(paymentId).orElseThrow().getInvoiceId();
+				BusinessContext.clear();
+
+				CyclicBarrier barrier = new CyclicBarrier(2);
+				String idempotencyKey = "mixed-second-" + round;
+
+				Future<?> payment = executor.submit(() -> {
+					barrier.await();
+					BusinessContext.setBusinessId(businessId);
+					try {
+						RecordPaymentRequest request = new RecordPaymentRequest();
+						request.setAmount(secondPayment);
+						request.setCurrency("INR");
+						invoiceService.recordPayment(invoiceId, request, idempotencyKey);
+					} finally {
+						BusinessContext.clear();
+					}
+					return null;
+				});
+				Future<?> refund = executor.submit(() -> {
+					barrier.await();
+					BusinessContext.setBusinessId(businessId);
+					try {
+						RefundRequest request = new RefundRequest();
+						request.setAmount(refundAmount);
+						request.setReason("Partial refund");
+						invoiceService.refundPayment(paymentId, request);
+					} finally {
+						BusinessContext.clear();
+					}
+					return null;
+				});
+
+				payment.get(1, TimeUnit.MINUTES);
+				refund.get(1, TimeUnit.MINUTES);
+
+				BusinessContext.setBusinessId(businessId);
+				assertThat(invoiceService.getInvoiceById(invoiceId).getAmountPaid())
+						.isEqualByComparingTo(firstPayment.add(secondPayment).subtract(refundAmount));
+				BusinessContext.clear();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private UUID createBusiness() {
+		Business business = new Business();
+		business.setName("refund-stress-" + UUID.randomUUID());
+		business.setCurrency("INR");
+		business.setPassword("secret");
+		return businessRepository.save(business).getId();
+	}
+
+	private UUID createPayment(UUID businessId, String invoiceNumber, BigDecimal paid) {
+		Customer customer = new Customer();
+		customer.setBusinessId(businessId);
+		customer.setName("Refund Customer");
+		customer = customerRepository.save(customer);
+
+		CreateInvoiceRequest.LineItemRequest item = new CreateInvoiceRequest.LineItemRequest();
+		item.setDescription("Subscription");
+		item.setQuantity(BigDecimal.ONE);
+		item.setUnitPrice(PAYMENT_AMOUNT);
+
+		CreateInvoiceRequest request = new CreateInvoiceRequest();
+		request.setInvoiceNumber(invoiceNumber);
+		request.setCustomerId(customer.getId());
+		request.setCurrency("INR");
+		request.setIssueDate(LocalDate.now());
+		request.setDueDate(LocalDate.now().plusDays(30));
+		request.setGst(0);
+		request.setLineItems(List.of(item));
+
+		UUID invoiceId = invoiceService.createInvoice(request).getId();
+		invoiceService.sendInvoice(invoiceId);
+
+		RecordPaymentRequest payment = new RecordPaymentRequest();
+		payment.setAmount(paid);
+		payment.setCurrency("INR");
+		invoiceService.recordPayment(invoiceId, payment, "refund-stress-" + invoiceNumber);
+
+		return paymentRepository.findByInvoiceIdAndBusinessId(invoiceId, businessId).get(0).getId();
+	}
+}
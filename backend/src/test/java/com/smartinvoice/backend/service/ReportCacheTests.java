@@ -0,0 +1,86 @@
+package com.smartinvoice.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class ReportCacheTests {
+
+	private final UUID businessId = UUID.randomUUID();
+	private final UUID otherBusinessId = UUID.randomUUID();
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private ReportCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new ReportCache(meterRegistry, 100, Duration.ofMinutes(5));
+	}
+
+	@Test
+	void servesCachedResultPerBusinessAndArguments() {
+		assertThat(get(businessId, "a")).isEqualTo(1);
+		assertThat(get(businessId, "a")).isEqualTo(1);
+		assertThat(get(businessId, "b")).isEqualTo(2);
+		assertThat(get(otherBusinessId, "a")).isEqualTo(3);
+		assertThat(loads).hasValue(3);
+	}
+
+	@Test
+	void invoiceChangeInvalidatesOnlyThatBusiness() {
+		get(businessId, "a");
+		get(otherBusinessId, "a");
+
+		// No transaction: the listener falls back to running immediately
+		cache.onInvoiceChanged(new InvoiceChangedEvent(businessId));
+
+		assertThat(get(businessId, "a")).isEqualTo(3);
+		assertThat(get(otherBusinessId, "a")).isEqualTo(2);
+	}
+
+	@Test
+	void loadRacingAnInvalidationIsNotServedAfterwards() {
+		// The change commits while the report is being computed from old data
+		Supplier<Integer> staleLoader = () -> {
+			cache.invalidate(businessId);
+			return -1;
+		};
+
+		assertThat(cache.<Integer>get(businessId, "report", List.of("a"), staleLoader)).isEqualTo(-1);
+		assertThat(get(businessId, "a")).isEqualTo(1);
+	}
+
+	@Test
+	void boundsCachedRowsRatherThanEntries() {
+		List<Integer> rows = Collections.nCopies(60, 0);
+
+		// Three generations of a 60-row list do not fit in 100 rows, although
+		// three entries would fit a count-based bound many times over
+		for (int i = 0; i < 3; i++) {
+			cache.get(businessId, "outstanding", List.of(), () -> rows);
+			cache.invalidate(businessId);
+		}
+
+		await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+				assertThat(meterRegistry.get("cache.eviction.weight")
+						.tag("cache", "reports")
+						.functionCounter()
+						.count()).isGreaterThanOrEqualTo(80));
+	}
+
+	private int get(UUID business, String argument) {
+		return cache.get(business, "report", List.of(argument), loads::incrementAndGet);
+	}
+}
@@ -0,0 +1,225 @@
+package com.smartinvoice.backend.tenant;
+
+import com.smartinvoice.backend.repository.BusinessRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BusinessFilterTests {
+
+	private final UUID knownBusinessId = UUID.randomUUID();
+
+	private BusinessRepository businessRepository;
+	private SimpleMeterRegistry meterRegistry;
+	private BusinessFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		businessRepository = mock(BusinessRepository.class);
+		when(businessRepository.existsById(any())).thenAnswer(call -> knownBusinessId.equals(call.getArgument(0)));
+
+		meterRegistry = new SimpleMeterRegistry();
+
+		// 3 writes, 1 report slot per tenant; refill slowly enough not to matter during a test
+		AdmissionControl admissionControl = new AdmissionControl(true, 100, 1, 3, 0.001, 100, 1, 1, 1);
+		filter = new BusinessFilter(
+				new TenantResolver(businessRepository, admissionControl, meterRegistry, 100, Duration.ofMinutes(5), List.of()),
+				admissionControl);
+	}
+
+	@Test
+	void bindsKnownBusinessAndCountsRequests() throws Exception {
+		AtomicReference<UUID> bound = new AtomicReference<>();
+
+		for (int i = 0; i < 3; i++) {
+			MockFilterChain chain = new MockFilterChain() {
+				@Override
+				public void doFilter(ServletRequest request, ServletResponse response) {
+					bound.set(BusinessContext.getBusinessId());
+				}
+			};
+			filter.doFilter(request(knownBusinessId.toString()), new MockHttpServletResponse(), chain);
+		}
+
+		assertThat(bound.get()).isEqualTo(knownBusinessId);
+		assertThat(BusinessContext.getTenant()).isNull();
+		verify(businessRepository, times(1)).existsById(knownBusinessId);
+		assertThat(meterRegistry.get("smartinvoice.tenant.requests")
+				.tag("business", knownBusinessId.toString())
+				.functionCounter()
+				.count()).isEqualTo(3);
+	}
+
+	@Test
+	void rejectsMalformedBusinessId() throws Exception {
+		for (String header : new String[] {"not-a-uuid", "1-1-1-1-1"}) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			MockFilterChain chain = new MockFilterChain();
+
+			filter.doFilter(request(header), response, chain);
+
+			assertThat(response.getStatus()).isEqualTo(400);
+			assertThat(chain.getRequest()).isNull();
+		}
+
+		verify(businessRepository, times(0)).existsById(any());
+	}
+
+	@Test
+	void rejectsUnknownBusiness() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(request(UUID.randomUUID().toString()), response, chain);
+
+		assertThat(response.getStatus()).isEqualTo(403);
+		assertThat(chain.getRequest()).isNull();
+	}
+
+	@Test
+	void passesRequestsWithoutHeaderThrough() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), response, chain);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(chain.getRequest()).isNotNull();
+	}
+
+	@Test
+	void rejectsWritesOverLimitWithRetryHint() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			filter.doFilter(request("POST", "/api/invoices", knownBusinessId.toString()), response, new MockFilterChain());
+			assertThat(response.getStatus()).isEqualTo(200);
+		}
+
+		MockHttpServletResponse rejected = new MockHttpServletResponse();
+		filter.doFilter(request("POST", "/api/invoices", knownBusinessId.toString()), rejected, new MockFilterChain());
+
+		assertThat(rejected.getStatus()).isEqualTo(429);
+		assertThat(Long.parseLong(rejected.getHeader("Retry-After"))).isPositive();
+
+		// Reads have their own bucket
+		MockHttpServletResponse read = new MockHttpServletResponse();
+		filter.doFilter(request(knownBusinessId.toString()), read, new MockFilterChain());
+		assertThat(read.getStatus()).isEqualTo(200);
+
+		assertThat(meterRegistry.get("smartinvoice.tenant.rejections")
+				.tag("business", knownBusinessId.toString())
+				.tag("class", "write")
+				.functionCounter()
+				.count()).isEqualTo(1);
+	}
+
+	@Test
+	void limitsConcurrentReportsPerTenant() throws Exception {
+		AtomicReference<Integer> nestedStatus = new AtomicReference<>();
+
+		MockFilterChain chain = new MockFilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response) throws IOException, ServletException {
+				MockHttpServletResponse nested = new MockHttpServletResponse();
+				filter.doFilter(request("GET", "/api/reports/outstanding", knownBusinessId.toString()), nested, new MockFilterChain());
+				nestedStatus.set(nested.getStatus());
+			}
+		};
+
+		filter.doFilter(request("GET", "/api/reports/monthly", knownBusinessId.toString()), new MockHttpServletResponse(), chain);
+		assertThat(nestedStatus.get()).isEqualTo(429);
+
+		// The slot is released once the first report completes
+		MockHttpServletResponse next = new MockHttpServletResponse();
+		filter.doFilter(request("GET", "/api/reports/outstanding", knownBusinessId.toString()), next, new MockFilterChain());
+		assertThat(next.getStatus()).isEqualTo(200);
+
+		// A streamed report holds its slot until the async request completes
+		MockHttpServletRequest streamed = request("GET", "/api/reports/outstanding", knownBusinessId.toString());
+		filter.doFilter(streamed, new MockHttpServletResponse(), new StreamingChain());
+
+		MockHttpServletResponse whileStreaming = new MockHttpServletResponse();
+		filter.doFilter(request("GET", "/api/reports/monthly", knownBusinessId.toString()), whileStreaming, new MockFilterChain());
+		assertThat(whileStreaming.getStatus()).isEqualTo(429);
+
+		streamed.getAsyncContext().complete();
+
+		MockHttpServletResponse afterStreaming = new MockHttpServletResponse();
+		filter.doFilter(request("GET", "/api/reports/monthly", knownBusinessId.toString()), afterStreaming, new MockFilterChain());
+		assertThat(afterStreaming.getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void limitsConcurrentStreamingExportsPerTenant() throws Exception {
+		// 2 report slots per tenant, 8 overall
+		AdmissionControl admissionControl = new AdmissionControl(true, 100, 1, 3, 0.001, 100, 1, 8, 2);
+		BusinessFilter exportFilter = new BusinessFilter(
+				new TenantResolver(businessRepository, admissionControl, meterRegistry, 100, Duration.ofMinutes(5), List.of()),
+				admissionControl);
+
+		List<MockHttpServletRequest> exports = new ArrayList<>();
+
+		for (int i = 0; i < 2; i++) {
+			MockHttpServletRequest export = request("GET", "/api/exports/invoices", knownBusinessId.toString());
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			exportFilter.doFilter(export, response, new StreamingChain());
+
+			assertThat(response.getStatus()).isEqualTo(200);
+			assertThat(export.isAsyncStarted()).isTrue();
+			exports.add(export);
+		}
+
+		MockHttpServletResponse third = new MockHttpServletResponse();
+		exportFilter.doFilter(request("GET", "/api/exports/payments", knownBusinessId.toString()), third, new StreamingChain());
+		assertThat(third.getStatus()).isEqualTo(429);
+
+		exports.get(0).getAsyncContext().complete();
+
+		MockHttpServletResponse next = new MockHttpServletResponse();
+		exportFilter.doFilter(request("GET", "/api/exports/payments", knownBusinessId.toString()), next, new StreamingChain());
+		assertThat(next.getStatus()).isEqualTo(200);
+	}
+
+	/**
+	 * Starts async processing and returns, like a controller returning a
+	 * StreamingResponseBody; the test completes the async context itself.
+	 */
+	static class StreamingChain extends MockFilterChain {
+
+		@Override
+		public void doFilter(ServletRequest request, ServletResponse response) {
+			request.startAsync(request, response);
+		}
+	}
+
+	private static MockHttpServletRequest request(String businessId) {
+		return request("GET", "/api/invoices", businessId);
+	}
+
+	private static MockHttpServletRequest request(String method, String uri, String businessId) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+		request.setAsyncSupported(true);
+		request.addHeader("X-Business-ID", businessId);
+		return request;
+	}
+}